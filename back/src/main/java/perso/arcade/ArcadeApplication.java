@@ -2,8 +2,10 @@ package perso.arcade;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ArcadeApplication {
     public static void main(String[] args) {
         SpringApplication.run(ArcadeApplication.class, args);
@@ -0,0 +1,61 @@
+package perso.arcade;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService spriteAnalysisExecutor(@Value("${sprite.import.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Envois vers les clients WebSocket, une file bornée par groupe de sessions : un client lent ne retarde que sa
+     * file. Aucune frame n'y est jetée (CONNECTED, RECEIPT, ERROR comprises) ; les messages d'un client lent le sont
+     * par le décorateur de sa session.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ShardedExecutor websocketOutboundExecutor(@Value("${websocket.outbound.shards:0}") int shards,
+                                                     @Value("${websocket.outbound.queue-capacity:10000}") int capacity,
+                                                     @Value("${websocket.outbound.offer-timeout-ms:1000}")
+                                                     long offerTimeoutMs) {
+        return new ShardedExecutor("ws-outbound", shards > 0 ? shards : Runtime.getRuntime().availableProcessors(),
+                capacity, offerTimeoutMs, message -> SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+    }
+
+    /**
+     * Diffusion du broker, une file par groupe de destinations : l'appelant de {@code convertAndSend} rend la main
+     * sans attendre la diffusion, sauf file pleine où il attend, voire diffuse lui-même.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ShardedExecutor websocketBrokerExecutor(@Value("${websocket.broker.shards:0}") int shards,
+                                                   @Value("${websocket.broker.queue-capacity:10000}") int capacity,
+                                                   @Value("${websocket.broker.offer-timeout-ms:1000}")
+                                                   long offerTimeoutMs) {
+        return new ShardedExecutor("ws-broker", shards > 0 ? shards : Runtime.getRuntime().availableProcessors(),
+                capacity, offerTimeoutMs, message -> SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService spriteImportExecutor(@Value("${sprite.import.workers:2}") int workers,
+                                                @Value("${sprite.import.queue-capacity:16}") int queueCapacity) {
+        return new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity)
+        );
+    }
+}
@@ -0,0 +1,99 @@
+package perso.arcade;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Exécuteur de canal de messages découpé en files mono-thread : les messages de même clé (session, destination)
+ * passent toujours par la même file, donc dans l'ordre, et une clé lente ne retient que sa file. Chaque file est
+ * bornée et ne jette rien : pleine, elle fait attendre l'émetteur jusqu'à {@code offerTimeoutMs}, puis l'émetteur
+ * traite le message lui-même, au prix de l'ordre de sa clé. Écarter un client lent revient au décorateur de session.
+ */
+public class ShardedExecutor implements Executor {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedExecutor.class);
+    private static final int LOG_EVERY = 1000;
+
+    private final String name;
+    private final ThreadPoolExecutor[] shards;
+    private final Function<Message<?>, Object> keyOf;
+    private final long offerTimeoutMs;
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    public ShardedExecutor(String name, int shardCount, int queueCapacity, long offerTimeoutMs,
+                           Function<Message<?>, Object> keyOf) {
+        this.name = name;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shards = new ThreadPoolExecutor[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            String threadName = name + "-" + i;
+            int shard = i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    task -> {
+                        Thread thread = new Thread(task, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (task, executor) -> saturated(shard, task, executor));
+        }
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Les tâches sans message ou sans clé sont réparties au hasard.
+     */
+    @Override
+    public void execute(Runnable task) {
+        Object key = task instanceof MessageHandlingRunnable handling ? keyOf.apply(handling.getMessage()) : null;
+        int shard = key != null
+                ? Math.floorMod(key.hashCode() * 0x9E3779B9, shards.length)
+                : ThreadLocalRandom.current().nextInt(shards.length);
+        shards[shard].execute(task);
+    }
+
+    /**
+     * Nombre de messages traités par leur émetteur faute de place depuis le démarrage.
+     */
+    public long callerRuns() {
+        return callerRuns.get();
+    }
+
+    /**
+     * Appelé dans le thread émetteur. Le premier message traité sur place puis un sur {@value #LOG_EVERY} sont
+     * journalisés : une file pleine déborde en rafale.
+     */
+    private void saturated(int shard, Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        try {
+            if (executor.getQueue().offer(task, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long total = callerRuns.incrementAndGet();
+        if (total == 1 || total % LOG_EVERY == 0) {
+            log.warn("{}.saturated shard={} queued={} total={}", name, shard, executor.getQueue().size(), total);
+        }
+        task.run();
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
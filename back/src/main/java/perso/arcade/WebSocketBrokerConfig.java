@@ -0,0 +1,48 @@
+package perso.arcade;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Remplace {@code @EnableWebSocketMessageBroker} pour fournir notre {@link SubProtocolWebSocketHandler} ; les
+ * réglages restent dans {@link WebSocketConfig}.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        return new DroppingSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel);
+    }
+
+    /**
+     * Spring enveloppe chaque session dans un décorateur qui la ferme dès que le tampon d'envoi déborde ; celui-ci
+     * jette plutôt les plus anciens messages d'un client lent. Un client bloqué au-delà du délai d'envoi reste
+     * déconnecté. Les limites sont celles de {@link WebSocketConfig#configureWebSocketTransport}.
+     */
+    static class DroppingSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+        DroppingSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                            SubscribableChannel clientOutboundChannel) {
+            super(clientInboundChannel, clientOutboundChannel);
+        }
+
+        @Override
+        protected WebSocketSession decorateSession(WebSocketSession session) {
+            return new ConcurrentWebSocketSessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                    ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+        }
+    }
+}
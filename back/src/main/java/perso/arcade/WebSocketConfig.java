@@ -1,38 +1,116 @@
 package perso.arcade;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
 import perso.arcade.security.JwtChannelInterceptor;
 
+/**
+ * Broker simple réglé pour la diffusion : files d'envoi découpées par session et par destination, tampon d'envoi
+ * borné par session qui jette les messages les plus anciens d'un client lent (voir {@link WebSocketBrokerConfig}),
+ * et heartbeats.
+ */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtChannelInterceptor jwtChannelInterceptor;
+    private final ShardedExecutor websocketOutboundExecutor;
+    private final ShardedExecutor websocketBrokerExecutor;
+    private final TaskScheduler messageBrokerTaskScheduler;
+    private final int messageSizeLimit;
+    private final int timeToFirstMessageMs;
+    private final long maxSessionIdleMs;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final long serverHeartbeatMs;
+    private final long clientHeartbeatMs;
 
-    public WebSocketConfig(JwtChannelInterceptor jwtChannelInterceptor) {
+    public WebSocketConfig(JwtChannelInterceptor jwtChannelInterceptor,
+                           @Qualifier("websocketOutboundExecutor") ShardedExecutor websocketOutboundExecutor,
+                           @Qualifier("websocketBrokerExecutor") ShardedExecutor websocketBrokerExecutor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler,
+                           @Value("${websocket.message-size-limit:65536}") int messageSizeLimit,
+                           @Value("${websocket.time-to-first-message-ms:30000}") int timeToFirstMessageMs,
+                           @Value("${websocket.max-session-idle-ms:60000}") long maxSessionIdleMs,
+                           @Value("${websocket.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                           @Value("${websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                           @Value("${websocket.heartbeat.server-ms:10000}") long serverHeartbeatMs,
+                           @Value("${websocket.heartbeat.client-ms:10000}") long clientHeartbeatMs) {
         this.jwtChannelInterceptor = jwtChannelInterceptor;
+        this.websocketOutboundExecutor = websocketOutboundExecutor;
+        this.websocketBrokerExecutor = websocketBrokerExecutor;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+        this.messageSizeLimit = messageSizeLimit;
+        this.timeToFirstMessageMs = timeToFirstMessageMs;
+        this.maxSessionIdleMs = maxSessionIdleMs;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.serverHeartbeatMs = serverHeartbeatMs;
+        this.clientHeartbeatMs = clientHeartbeatMs;
     }
 
+    /**
+     * {@code /ws-game} est un WebSocket natif, sans le tramage ni la négociation SockJS ; {@code /ws} reste le repli
+     * pour les clients qui ne peuvent pas l'ouvrir.
+     */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws-game")
+                .setAllowedOriginPatterns("*");
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
 
+    /**
+     * Tampons du conteneur pour le WebSocket natif, alignés sur la taille maximale d'un message STOMP.
+     */
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(messageSizeLimit);
+        container.setMaxBinaryMessageBufferSize(messageSizeLimit);
+        container.setMaxSessionIdleTimeout(maxSessionIdleMs);
+        return container;
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(jwtChannelInterceptor);
     }
 
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(websocketOutboundExecutor);
+    }
+
+    /**
+     * Limites du tampon d'envoi de chaque session, appliquées par
+     * {@link WebSocketBrokerConfig.DroppingSubProtocolWebSocketHandler}.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setTimeToFirstMessage(timeToFirstMessageMs)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/topic", "/queue");
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{serverHeartbeatMs, clientHeartbeatMs})
+                .setTaskScheduler(messageBrokerTaskScheduler);
+        registry.configureBrokerChannel().executor(websocketBrokerExecutor);
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,9 @@ package perso.arcade.controller;
 
 import org.springframework.web.bind.annotation.*;
 import perso.arcade.model.dto.ClassementDto;
+import perso.arcade.model.dto.LeaderboardPageDto;
 import perso.arcade.model.dto.SaveRecordDto;
-import perso.arcade.model.entities.Record;
+import perso.arcade.model.dto.SaveRecordResultDto;
 import perso.arcade.service.RecordService;
 
 import java.util.List;
@@ -19,13 +20,40 @@ public class RecordController {
     }
 
     @PostMapping
-    public Record saveRecord(@RequestBody SaveRecordDto saveRecordDto) {
+    public SaveRecordResultDto saveRecord(@RequestBody SaveRecordDto saveRecordDto) {
         return recordService.saveRecord(saveRecordDto);
     }
 
     @GetMapping("/leaderboard/{gameName}")
-    public List<ClassementDto> getLeaderboard(@PathVariable String gameName) {
-        return recordService.getLeaderboard(gameName);
+    public List<ClassementDto> getLeaderboard(@PathVariable String gameName,
+                                              @RequestParam(required = false) Integer limit) {
+        return recordService.getLeaderboard(gameName, limit);
+    }
+
+    @GetMapping("/leaderboard/{gameName}/page")
+    public LeaderboardPageDto getLeaderboardPage(@PathVariable String gameName,
+                                                 @RequestParam(required = false) Long afterScore,
+                                                 @RequestParam(required = false) Long afterId,
+                                                 @RequestParam(required = false) Integer size) {
+        return recordService.getLeaderboardPage(gameName, afterScore, afterId, size);
+    }
+
+    @GetMapping("/leaderboard/{gameName}/me")
+    public ClassementDto getMyRank(@PathVariable String gameName) {
+        return recordService.getMyRank(gameName);
+    }
+
+    @GetMapping("/leaderboard/{gameName}/around")
+    public List<ClassementDto> getAroundMe(@PathVariable String gameName,
+                                           @RequestParam(defaultValue = "5") int radius) {
+        return recordService.getAroundMe(gameName, radius);
+    }
+
+    @GetMapping("/leaderboard/{gameName}/around/{pseudo}")
+    public List<ClassementDto> getAroundPlayer(@PathVariable String gameName,
+                                               @PathVariable String pseudo,
+                                               @RequestParam(defaultValue = "5") int radius) {
+        return recordService.getAroundPlayer(gameName, pseudo, radius);
     }
 
     @GetMapping("/bestScore/{gameName}")
@@ -1,35 +1,65 @@
 package perso.arcade.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import perso.arcade.model.dto.AtlasDto;
+import perso.arcade.model.dto.CacheStatsDto;
 import perso.arcade.model.dto.HitboxDto;
 import perso.arcade.model.dto.ModifSpriteDto;
+import perso.arcade.model.dto.SpriteImportJobDto;
 import perso.arcade.model.dto.SpriteInfos;
 import perso.arcade.model.dto.SpritePlay;
+import perso.arcade.model.dto.SpriteTransformDto;
 import perso.arcade.model.entities.Animation;
+import perso.arcade.service.SpriteAtlasService;
+import perso.arcade.service.SpriteDeliveryService;
+import perso.arcade.service.SpriteImportJobService;
 import perso.arcade.service.SpriteService;
+import perso.arcade.service.SpriteTransformService;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sprite")
 public class SpriteController {
 
     private final SpriteService spriteService;
-
-
-    public SpriteController(SpriteService spriteService) {
+    private final SpriteImportJobService spriteImportJobService;
+    private final SpriteTransformService spriteTransformService;
+    private final SpriteDeliveryService spriteDeliveryService;
+    private final SpriteAtlasService spriteAtlasService;
+
+    public SpriteController(SpriteService spriteService,
+                            SpriteImportJobService spriteImportJobService,
+                            SpriteTransformService spriteTransformService,
+                            SpriteDeliveryService spriteDeliveryService,
+                            SpriteAtlasService spriteAtlasService) {
         this.spriteService = spriteService;
+        this.spriteImportJobService = spriteImportJobService;
+        this.spriteTransformService = spriteTransformService;
+        this.spriteDeliveryService = spriteDeliveryService;
+        this.spriteAtlasService = spriteAtlasService;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public SpriteInfos uploadSprite(@RequestParam("file") MultipartFile zipFile) {
-        return spriteService.processSpriteZip(zipFile);
+    public SpriteImportJobDto uploadSprite(@RequestParam("file") MultipartFile zipFile) {
+        return spriteImportJobService.submit(zipFile);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public SpriteImportJobDto getImportJob(@PathVariable String jobId) {
+        return spriteImportJobService.getJob(jobId);
+    }
+
+    @GetMapping("/cache/stats")
+    public List<CacheStatsDto> getCacheStats() {
+        return spriteService.getCacheStats();
     }
 
     @GetMapping("/all")
@@ -50,8 +80,8 @@ public class SpriteController {
     }
 
     @GetMapping("/sprite-storage/**")
-    public ResponseEntity<Resource> getSprite(HttpServletRequest request) throws IOException {
-        return spriteService.getSprite(request);
+    public void getSprite(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        spriteDeliveryService.serve(request, response);
     }
 
     @GetMapping("/animations/{spriteName}")
@@ -60,14 +90,18 @@ public class SpriteController {
     }
 
     @GetMapping("/normalize-sprite-sheet/{animationId}")
-    public SpriteInfos normalizeSpriteSheet(@PathVariable Long animationId) throws IOException {
+    public SpriteInfos normalizeSpriteSheet(@PathVariable Long animationId) {
         return spriteService.normalizeSpriteSheet(animationId);
     }
 
     @GetMapping("/flip-horizontal/{animationId}")
-    public ResponseEntity<Void> flipHorizontal(@PathVariable Long animationId) {
-        spriteService.flipHorizontal(animationId);
-        return ResponseEntity.noContent().build();
+    public SpriteInfos flipHorizontal(@PathVariable Long animationId) {
+        return spriteService.flipHorizontal(animationId);
+    }
+
+    @PostMapping("/transform")
+    public List<SpriteInfos> transformSprites(@RequestBody SpriteTransformDto spriteTransformDto) {
+        return spriteTransformService.transform(spriteTransformDto);
     }
 
     @GetMapping("/play/{spriteName}")
@@ -75,6 +109,16 @@ public class SpriteController {
         return spriteService.getSpritePlay(spriteName);
     }
 
+    @PostMapping("/play")
+    public Map<String, SpritePlay> getSpritePlays(@RequestBody List<String> spriteNames) {
+        return spriteService.getSpritePlays(spriteNames);
+    }
+
+    @PostMapping("/atlas")
+    public AtlasDto getAtlas(@RequestBody List<String> spriteNames) {
+        return spriteAtlasService.getAtlas(spriteNames);
+    }
+
     @PutMapping("/save-frame-rate/{animationId}/{frameRate}")
     public Animation saveFrameRate(@PathVariable Long animationId, @PathVariable int frameRate) {
         return spriteService.saveFrameRate(animationId, frameRate);
@@ -36,6 +36,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
+    @ExceptionHandler(SpriteTransformFailedException.class)
+    public ResponseEntity<Map<String, String>> handleSpriteTransformFailed(SpriteTransformFailedException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "SPRITE_TRANSFORM_FAILED");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(body);
+    }
+
+    @ExceptionHandler(SpriteTransformConflictException.class)
+    public ResponseEntity<Map<String, String>> handleSpriteTransformConflict(SpriteTransformConflictException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "SPRITE_TRANSFORM_CONFLICT");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(ImportQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleImportQueueFull(ImportQueueFullException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "IMPORT_QUEUE_FULL");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleImportJobNotFound(ImportJobNotFoundException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", "IMPORT_JOB_NOT_FOUND");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleAllExceptions(Exception ex) {
         Map<String, String> body = new HashMap<>();
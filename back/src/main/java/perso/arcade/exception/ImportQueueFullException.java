@@ -0,0 +1,7 @@
+package perso.arcade.exception;
+
+public class ImportQueueFullException extends RuntimeException {
+    public ImportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package perso.arcade.exception;
+
+public class SpriteArchiveTooLargeException extends RuntimeException {
+    public SpriteArchiveTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package perso.arcade.exception;
+
+public class SpriteTransformConflictException extends RuntimeException {
+    public SpriteTransformConflictException(String message) {
+        super(message);
+    }
+}
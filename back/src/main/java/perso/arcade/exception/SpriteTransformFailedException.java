@@ -0,0 +1,7 @@
+package perso.arcade.exception;
+
+public class SpriteTransformFailedException extends RuntimeException {
+    public SpriteTransformFailedException(String message) {
+        super(message);
+    }
+}
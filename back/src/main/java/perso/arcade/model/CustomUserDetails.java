@@ -17,6 +17,10 @@ public class CustomUserDetails implements UserDetails {
         this.player = player;
     }
 
+    public Long getId() {
+        return player.getId();
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_USER"));
@@ -0,0 +1,28 @@
+package perso.arcade.model.dto;
+
+import perso.arcade.model.enumeration.AnimationType;
+
+import java.util.List;
+
+/**
+ * Atlas de plusieurs sprites : URL des pages et position de chaque frame, avec la hitbox de l'animation.
+ */
+public record AtlasDto(String id, List<String> pages, List<AtlasAnimation> animations) {
+
+    public record AtlasAnimation(String sprite,
+                                 Long animationId,
+                                 AnimationType type,
+                                 int frameWidth,
+                                 int frameHeight,
+                                 int frameRate,
+                                 float scale,
+                                 Integer hitboxX,
+                                 Integer hitboxY,
+                                 Integer hitboxWidth,
+                                 Integer hitboxHeight,
+                                 List<AtlasFrame> frames) {
+    }
+
+    public record AtlasFrame(int page, int x, int y) {
+    }
+}
@@ -1,14 +1,24 @@
 package perso.arcade.model.dto;
 
 public class ClassementDto {
+    private int rank;
     private String pseudo;
     private String score;
 
-    public ClassementDto(String pseudo, String score) {
+    public ClassementDto(int rank, String pseudo, String score) {
+        this.rank = rank;
         this.pseudo = pseudo;
         this.score = score;
     }
 
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
     public String getPseudo() {
         return pseudo;
     }
@@ -0,0 +1,16 @@
+package perso.arcade.model.dto;
+
+import java.util.List;
+
+/**
+ * Joueurs dont le rang a changé depuis la dernière diffusion, triés par nouveau rang. Les autres joueurs gardent leur
+ * ordre relatif : retirer les joueurs listés puis les insérer à {@code newRank} redonne le classement à jour.
+ */
+public record LeaderboardDiffDto(String gameName, List<RankDelta> deltas) {
+
+    /**
+     * {@code oldRank} vaut 0 si le joueur n'était pas classé.
+     */
+    public record RankDelta(String pseudo, int oldRank, int newRank, String score) {
+    }
+}
@@ -0,0 +1,10 @@
+package perso.arcade.model.dto;
+
+import java.util.List;
+
+/**
+ * Page de classement ; {@code afterScore} et {@code afterId} sont le curseur de la page suivante, {@code null} sur la
+ * dernière page.
+ */
+public record LeaderboardPageDto(List<ClassementDto> content, Long afterScore, Long afterId) {
+}
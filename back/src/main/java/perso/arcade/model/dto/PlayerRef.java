@@ -0,0 +1,7 @@
+package perso.arcade.model.dto;
+
+/**
+ * Identité d'un joueur, sans mot de passe ni relations : ce que les chemins chauds ont besoin de connaître.
+ */
+public record PlayerRef(long id, String pseudo) {
+}
@@ -0,0 +1,7 @@
+package perso.arcade.model.dto;
+
+/**
+ * Ligne de classement lue en base pour alimenter les classements en mémoire.
+ */
+public record RankedScore(Long recordId, Long playerId, String pseudo, String gameName, Long score) {
+}
@@ -0,0 +1,10 @@
+package perso.arcade.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Meilleur score accepté en mémoire, en attente d'écriture en base. {@code lowerIsBetter} ne sert qu'à fusionner les
+ * soumissions d'un même lot : en base, c'est la colonne du jeu qui fait foi.
+ */
+public record RecordUpsert(long playerId, long gameId, long score, boolean lowerIsBetter, LocalDateTime recordDate) {
+}
@@ -0,0 +1,7 @@
+package perso.arcade.model.dto;
+
+/**
+ * Meilleur score effectif du joueur après la soumission, et son rang.
+ */
+public record SaveRecordResultDto(long bestScore, String displayScore, int rank, boolean improved) {
+}
@@ -0,0 +1,55 @@
+package perso.arcade.model.dto;
+
+import perso.arcade.model.enumeration.ImportStage;
+
+public class SpriteImportJobDto {
+    private final String jobId;
+    private final ImportStage stage;
+    private final int processed;
+    private final int total;
+    private final SpriteInfos sprite;
+    private final String error;
+    private final String errorCode;
+
+    public SpriteImportJobDto(String jobId, ImportStage stage, int processed, int total, SpriteInfos sprite, String error,
+                              String errorCode) {
+        this.jobId = jobId;
+        this.stage = stage;
+        this.processed = processed;
+        this.total = total;
+        this.sprite = sprite;
+        this.error = error;
+        this.errorCode = errorCode;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public ImportStage getStage() {
+        return stage;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public SpriteInfos getSprite() {
+        return sprite;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Code lisible par le client d'un import {@code FAILED}, comme le champ {@code error} des réponses d'erreur HTTP.
+     */
+    public String getErrorCode() {
+        return errorCode;
+    }
+}
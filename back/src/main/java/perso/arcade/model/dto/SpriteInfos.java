@@ -1,5 +1,7 @@
 package perso.arcade.model.dto;
 
+import perso.arcade.model.enumeration.AnimationType;
+
 public class SpriteInfos {
     private final Long animationId;
     private String name;
@@ -13,8 +15,9 @@ public class SpriteInfos {
     private Integer hitboxY;
     private Integer hitboxWidth;
     private Integer hitboxHeight;
+    private AnimationType type;
 
-    public SpriteInfos(Long animationId, String name, String imageUrl, int width, int height, int frames, float scale, int frameRate, Integer hitboxX, Integer hitboxY, Integer hitboxWidth, Integer hitboxHeight) {
+    public SpriteInfos(Long animationId, String name, String imageUrl, int width, int height, int frames, float scale, int frameRate, Integer hitboxX, Integer hitboxY, Integer hitboxWidth, Integer hitboxHeight, AnimationType type) {
         this.animationId = animationId;
         this.name = name;
         this.imageUrl = imageUrl;
@@ -27,6 +30,7 @@ public class SpriteInfos {
         this.hitboxY = hitboxY;
         this.hitboxWidth = hitboxWidth;
         this.hitboxHeight = hitboxHeight;
+        this.type = type;
     }
 
     public Long getAnimationId() {
@@ -120,4 +124,12 @@ public class SpriteInfos {
     public void setHitboxHeight(Integer hitboxHeight) {
         this.hitboxHeight = hitboxHeight;
     }
+
+    public AnimationType getType() {
+        return type;
+    }
+
+    public void setType(AnimationType type) {
+        this.type = type;
+    }
 }
\ No newline at end of file
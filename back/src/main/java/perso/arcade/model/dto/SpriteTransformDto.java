@@ -0,0 +1,36 @@
+package perso.arcade.model.dto;
+
+import perso.arcade.model.enumeration.SpriteOperation;
+
+import java.util.List;
+
+public class SpriteTransformDto {
+
+    private String spriteName;
+    private List<Long> animationIds;
+    private List<SpriteOperation> operations;
+
+    public String getSpriteName() {
+        return spriteName;
+    }
+
+    public void setSpriteName(String spriteName) {
+        this.spriteName = spriteName;
+    }
+
+    public List<Long> getAnimationIds() {
+        return animationIds;
+    }
+
+    public void setAnimationIds(List<Long> animationIds) {
+        this.animationIds = animationIds;
+    }
+
+    public List<SpriteOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<SpriteOperation> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,7 @@
+package perso.arcade.model.dto;
+
+/**
+ * Ligne de record telle qu'elle est en base après un upsert.
+ */
+public record StoredRecord(long id, long playerId, long gameId, long score) {
+}
@@ -39,6 +39,9 @@ public class Animation {
     @Column(name = "hitbox_height")
     private Integer hitboxHeight;
 
+    @Column(name = "blob_hash", length = 64)
+    private String blobHash;
+
     @Enumerated(EnumType.STRING)
     private AnimationType type;
 
@@ -119,6 +122,14 @@ public class Animation {
         this.frameRate = frameRate;
     }
 
+    public String getBlobHash() {
+        return blobHash;
+    }
+
+    public void setBlobHash(String blobHash) {
+        this.blobHash = blobHash;
+    }
+
     public Integer getHitboxX() {
         return hitboxX;
     }
@@ -161,6 +172,7 @@ public class Animation {
                 indice == animation.indice &&
                 frameRate == animation.frameRate &&
                 Objects.equals(id, animation.id) &&
+                Objects.equals(blobHash, animation.blobHash) &&
                 type == animation.type &&
                 Objects.equals(sprite, animation.sprite) &&
                 Objects.equals(hitboxX, animation.hitboxX) &&
@@ -171,7 +183,7 @@ public class Animation {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, frames, width, height, indice, frameRate, type, sprite,
+        return Objects.hash(id, frames, width, height, indice, frameRate, blobHash, type, sprite,
                 hitboxX, hitboxY, hitboxWidth, hitboxHeight);
     }
 }
\ No newline at end of file
@@ -24,6 +24,10 @@ public class Game {
     @JsonManagedReference
     private Set<Record> records;
 
+    public Long getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -32,6 +32,10 @@ public class Player {
         this.password = hashedPassword;
     }
 
+    public Long getId() {
+        return id;
+    }
+
     public String getPseudo() {
         return pseudo;
     }
@@ -7,7 +7,13 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "record")
+@Table(name = "record", uniqueConstraints = {
+        // Cible de l'upsert des records : voir db/003_record_player_game_unique.sql
+        @UniqueConstraint(name = "uk_record_player_game", columnNames = {"player_id", "game_id"})
+}, indexes = {
+        // Classements paginés par curseur : voir db/002_record_leaderboard_index.sql
+        @Index(name = "idx_record_game_score_id", columnList = "game_id, score, id")
+})
 public class Record {
 
     @Id
@@ -29,6 +35,10 @@ public class Record {
     @JsonBackReference
     private Game game;
 
+    public Long getId() {
+        return id;
+    }
+
     public Long getScore() {
         return score;
     }
@@ -0,0 +1,45 @@
+package perso.arcade.model.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Fichier PNG stocké une seule fois, identifié par son SHA-256 et partagé entre les animations.
+ */
+@Entity
+@Table(name = "sprite_blob")
+public class SpriteBlob {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "released_at")
+    private Instant releasedAt;
+
+    public SpriteBlob() {
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public Instant getReleasedAt() {
+        return releasedAt;
+    }
+}
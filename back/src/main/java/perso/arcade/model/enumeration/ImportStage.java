@@ -0,0 +1,10 @@
+package perso.arcade.model.enumeration;
+
+public enum ImportStage {
+    QUEUED,
+    UNZIPPED,
+    ANALYZED,
+    STORED,
+    PERSISTED,
+    FAILED
+}
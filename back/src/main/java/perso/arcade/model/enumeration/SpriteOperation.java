@@ -0,0 +1,6 @@
+package perso.arcade.model.enumeration;
+
+public enum SpriteOperation {
+    NORMALIZE,
+    FLIP
+}
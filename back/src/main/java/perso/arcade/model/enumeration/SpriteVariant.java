@@ -0,0 +1,7 @@
+package perso.arcade.model.enumeration;
+
+public enum SpriteVariant {
+    HALF,
+    QUARTER,
+    THUMB
+}
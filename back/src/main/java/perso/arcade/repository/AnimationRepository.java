@@ -1,9 +1,27 @@
 package perso.arcade.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import perso.arcade.model.entities.Animation;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AnimationRepository extends JpaRepository<Animation, Long> {
+    List<Animation> findByBlobHashIsNull();
+
+    List<Animation> findByBlobHashIsNotNull();
+
+    /**
+     * Verrouille les lignes jusqu'à la fin de la transaction, toujours dans l'ordre des identifiants pour que deux
+     * appels concurrents ne puissent pas s'interbloquer.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Animation a WHERE a.id IN :ids ORDER BY a.id")
+    List<Animation> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -1,9 +1,10 @@
 package perso.arcade.repository;
 
-import perso.arcade.model.dto.ClassementDto;
+import perso.arcade.model.dto.RankedScore;
+import perso.arcade.model.entities.Game;
 
 import java.util.List;
 
 public interface GameRepositoryCustom {
-    List<ClassementDto> getLeaderboard(String gameName, boolean isLowerIsBetter);
-}
\ No newline at end of file
+    List<RankedScore> getScoresAfter(Game game, RankedScore after, int limit);
+}
@@ -4,7 +4,8 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import org.springframework.stereotype.Repository;
-import perso.arcade.model.dto.ClassementDto;
+import perso.arcade.model.dto.RankedScore;
+import perso.arcade.model.entities.Game;
 
 import java.util.List;
 
@@ -14,22 +15,29 @@ public class GameRepositoryImpl implements GameRepositoryCustom {
     @PersistenceContext
     private EntityManager entityManager;
 
+    /**
+     * Page de records d'un jeu triée par (score, id), à partir du curseur {@code after} exclu ; parcourt l'index
+     * {@code idx_record_game_score_id} sans OFFSET.
+     */
     @Override
-    public List<ClassementDto> getLeaderboard(String gameName, boolean isLowerIsBetter) {
-        String orderDirection = isLowerIsBetter ? " ASC" : " DESC";
-
+    public List<RankedScore> getScoresAfter(Game game, RankedScore after, int limit) {
         String req = """
-                SELECT new perso.arcade.model.dto.ClassementDto(p.pseudo, CAST(r.score AS string))
+                SELECT new perso.arcade.model.dto.RankedScore(r.id, p.id, p.pseudo, g.name, r.score)
                 FROM Record r
                 JOIN r.player p
                 JOIN r.game g
-                WHERE g.name = :gameName
-                ORDER BY r.score
-                """ + orderDirection;
-
-        TypedQuery<ClassementDto> query = entityManager.createQuery(req, ClassementDto.class);
-        query.setParameter("gameName", gameName);
+                WHERE r.game = :game AND r.score IS NOT NULL
+                """
+                + (after != null ? "AND (r.score > :score OR (r.score = :score AND r.id > :id))\n" : "")
+                + "ORDER BY r.score, r.id";
+
+        TypedQuery<RankedScore> query = entityManager.createQuery(req, RankedScore.class)
+                .setParameter("game", game)
+                .setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("score", after.score()).setParameter("id", after.recordId());
+        }
         return query.getResultList();
     }
 
-}
\ No newline at end of file
+}
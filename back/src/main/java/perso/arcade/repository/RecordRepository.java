@@ -3,13 +3,8 @@ package perso.arcade.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import perso.arcade.model.entities.Game;
-import perso.arcade.model.entities.Player;
 import perso.arcade.model.entities.Record;
 
-import java.util.Optional;
-
 @Repository
-public interface RecordRepository extends JpaRepository<Record, Long> {
-    Optional<Record> findByPlayerAndGame(Player player, Game game);
-}
\ No newline at end of file
+public interface RecordRepository extends JpaRepository<Record, Long>, RecordRepositoryCustom {
+}
@@ -0,0 +1,10 @@
+package perso.arcade.repository;
+
+import perso.arcade.model.dto.RecordUpsert;
+import perso.arcade.model.dto.StoredRecord;
+
+import java.util.List;
+
+public interface RecordRepositoryCustom {
+    List<StoredRecord> upsertBest(List<RecordUpsert> records);
+}
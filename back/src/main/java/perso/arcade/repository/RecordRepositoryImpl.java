@@ -0,0 +1,77 @@
+package perso.arcade.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import perso.arcade.model.dto.RecordUpsert;
+import perso.arcade.model.dto.StoredRecord;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+public class RecordRepositoryImpl implements RecordRepositoryCustom {
+
+    private static final String IS_BETTER = """
+            (CASE WHEN (SELECT g.lower_is_better FROM game g WHERE g.id = record.game_id)
+                  THEN EXCLUDED.score < record.score
+                  ELSE EXCLUDED.score > record.score END)""";
+
+    /**
+     * Tout le lot en une requête : le choix du meilleur score se fait sous le verrou de ligne posé par ON CONFLICT,
+     * avec le {@code lower_is_better} du jeu, et chaque ligne résultante est renvoyée, qu'elle ait changé ou non.
+     */
+    private static final String UPSERT = """
+            INSERT INTO record (player_id, game_id, score, record_date)
+            SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::timestamp[])
+            ON CONFLICT (player_id, game_id) DO UPDATE
+            SET score = CASE WHEN %s THEN EXCLUDED.score ELSE record.score END,
+                record_date = CASE WHEN %s THEN EXCLUDED.record_date ELSE record.record_date END
+            RETURNING id, player_id, game_id, score
+            """.formatted(IS_BETTER, IS_BETTER);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecordRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Un seul aller-retour pour tout le lot. Un même couple (joueur, jeu) ne doit pas apparaître deux fois. Le lot est
+     * trié par (jeu, joueur) : deux lots concurrents verrouillent leurs lignes dans le même ordre et ne peuvent pas
+     * s'interbloquer.
+     */
+    @Override
+    public List<StoredRecord> upsertBest(List<RecordUpsert> batch) {
+        List<RecordUpsert> records = batch.stream()
+                .sorted(Comparator.comparingLong(RecordUpsert::gameId).thenComparingLong(RecordUpsert::playerId))
+                .toList();
+        int size = records.size();
+        Long[] players = new Long[size];
+        Long[] games = new Long[size];
+        Long[] scores = new Long[size];
+        Timestamp[] dates = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            RecordUpsert record = records.get(i);
+            players[i] = record.playerId();
+            games[i] = record.gameId();
+            scores[i] = record.score();
+            dates[i] = Timestamp.valueOf(record.recordDate());
+        }
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT);
+            ps.setArray(1, con.createArrayOf("bigint", players));
+            ps.setArray(2, con.createArrayOf("bigint", games));
+            ps.setArray(3, con.createArrayOf("bigint", scores));
+            ps.setArray(4, con.createArrayOf("timestamp", dates));
+            return ps;
+        }, (rs, rowNum) -> new StoredRecord(
+                rs.getLong("id"),
+                rs.getLong("player_id"),
+                rs.getLong("game_id"),
+                rs.getLong("score")
+        ));
+    }
+}
@@ -0,0 +1,39 @@
+package perso.arcade.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import perso.arcade.model.entities.SpriteBlob;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface SpriteBlobRepository extends JpaRepository<SpriteBlob, String> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO sprite_blob (hash, size, ref_count, released_at)
+            VALUES (:hash, :size, 1, NULL)
+            ON CONFLICT (hash) DO UPDATE SET ref_count = sprite_blob.ref_count + 1, released_at = NULL
+            """, nativeQuery = true)
+    void acquire(@Param("hash") String hash, @Param("size") long size);
+
+    @Modifying
+    @Query("""
+            UPDATE SpriteBlob b
+            SET b.refCount = b.refCount - 1,
+                b.releasedAt = CASE WHEN b.refCount <= 1 THEN :now ELSE b.releasedAt END
+            WHERE b.hash = :hash
+            """)
+    void release(@Param("hash") String hash, @Param("now") Instant now);
+
+    @Query("SELECT b.hash FROM SpriteBlob b WHERE b.refCount <= 0 AND b.releasedAt < :before")
+    List<String> findCollectable(@Param("before") Instant before);
+
+    @Modifying
+    @Query("DELETE FROM SpriteBlob b WHERE b.hash = :hash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -1,9 +1,11 @@
 package perso.arcade.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import perso.arcade.model.entities.Sprite;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,7 @@ public interface SpriteRepository extends JpaRepository<Sprite, Long>, SpriteRep
     void deleteByName(String name);
 
     Optional<Sprite> findByName(String name);
+
+    @Query("SELECT a.blobHash FROM Sprite s JOIN s.animations a WHERE s.name = :name AND a.blobHash IS NOT NULL")
+    List<String> findBlobHashesByName(String name);
 }
@@ -3,6 +3,7 @@ package perso.arcade.repository;
 import perso.arcade.model.dto.SpriteInfos;
 import perso.arcade.model.enumeration.AnimationType;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SpriteRepositoryCustom {
@@ -13,4 +14,8 @@ public interface SpriteRepositoryCustom {
     SpriteInfos getSpriteInfosByAnimationId(Long animationId);
 
     List<SpriteInfos> getAllAnimationsBySpriteName(String spriteName);
+
+    List<SpriteInfos> getSpriteInfosByAnimationIds(Collection<Long> animationIds);
+
+    List<SpriteInfos> getAllAnimations();
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import perso.arcade.model.dto.SpriteInfos;
 import perso.arcade.model.enumeration.AnimationType;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,7 +17,7 @@ public class SpriteRepositoryImpl implements SpriteRepositoryCustom {
             SELECT new perso.arcade.model.dto.SpriteInfos(
                     a.id,
                     s.name,
-                    s.name || '/' || a.type || '/' || a.indice || '.png',
+                    'blobs/' || SUBSTRING(a.blobHash, 1, 2) || '/' || a.blobHash || '.png',
                     a.width,
                     a.height,
                     a.frames,
@@ -25,7 +26,8 @@ public class SpriteRepositoryImpl implements SpriteRepositoryCustom {
                     a.hitboxX,
                     a.hitboxY,
                     a.hitboxWidth,
-                    a.hitboxHeight
+                    a.hitboxHeight,
+                    a.type
             )
             FROM Sprite s
             JOIN s.animations a
@@ -53,6 +55,16 @@ public class SpriteRepositoryImpl implements SpriteRepositoryCustom {
         return getList("WHERE s.name = :spriteName ORDER BY a.id", "spriteName", spriteName);
     }
 
+    @Override
+    public List<SpriteInfos> getSpriteInfosByAnimationIds(Collection<Long> animationIds) {
+        return getList("WHERE a.id IN :animationIds ORDER BY a.id", "animationIds", animationIds);
+    }
+
+    @Override
+    public List<SpriteInfos> getAllAnimations() {
+        return entityManager.createQuery(BASE_SELECT + "ORDER BY s.name, a.id", SpriteInfos.class).getResultList();
+    }
+
     @Override
     public SpriteInfos getSpriteInfosByAnimationId(Long animationId) {
         return getSingle("WHERE a.id = :animationId", "animationId", animationId);
@@ -1,73 +1,104 @@
 package perso.arcade.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import perso.arcade.exception.JwtAuthenticationException;
 
 import java.security.Principal;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Authentifie la session STOMP une seule fois, au CONNECT : le principal est posé sur l'accesseur du message, que
+ * Spring rattache ensuite à la session et à chacune de ses frames. SEND et SUBSCRIBE sans principal sont refusés, ce
+ * qui renvoie une frame ERROR au client.
+ */
 @Component
 public class JwtChannelInterceptor implements ChannelInterceptor {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtChannelInterceptor.class);
+
     private final JwtUtils jwtUtils;
-    private final Map<String, Principal> sessionUserMap = new ConcurrentHashMap<>();
+    private final int logSampleRate;
 
-    public JwtChannelInterceptor(JwtUtils jwtUtils) {
+    public JwtChannelInterceptor(JwtUtils jwtUtils,
+                                 @Value("${websocket.log.sample-rate:100}") int logSampleRate) {
         this.jwtUtils = jwtUtils;
+        this.logSampleRate = Math.max(1, logSampleRate);
     }
 
     @Override
     public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
-        StompCommand command = accessor.getCommand();
-        if (command == null) return message;
-
-        String sessionId = accessor.getSessionId();
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
 
+        StompCommand command = accessor.getCommand();
         switch (command) {
-            case CONNECT -> handleConnect(accessor, sessionId);
-            case DISCONNECT -> handleDisconnect(sessionId);
-            default -> handleOtherCommand(accessor, sessionId, command);
+            case CONNECT, STOMP -> authenticate(accessor);
+            case SEND, SUBSCRIBE -> requireUser(accessor, message);
+            default -> {
+            }
         }
         return message;
     }
 
-    private void handleConnect(StompHeaderAccessor accessor, String sessionId) {
+    /**
+     * Sans en-tête Authorization, la session reste anonyme ; un jeton invalide est refusé tout de suite.
+     */
+    private void authenticate(StompHeaderAccessor accessor) {
         String jwt = jwtUtils.extractToken(accessor.getFirstNativeHeader("Authorization"));
+        if (jwt == null) {
+            log.debug("stomp.connect session={} user=anonymous", accessor.getSessionId());
+            return;
+        }
+
         try {
             UsernamePasswordAuthenticationToken auth = jwtUtils.getAuthenticationFromToken(jwt);
             accessor.setUser(auth);
-            sessionUserMap.put(sessionId, auth);
-            System.out.println("STOMP CONNECT de l'utilisateur : " + auth.getName());
+            log.info("stomp.connect session={} user={}", accessor.getSessionId(), auth.getName());
         } catch (JwtAuthenticationException e) {
-            System.out.println("STOMP CONNECT refusé : JWT invalide ou absent");
+            log.warn("stomp.connect.rejected session={} reason=invalid_token", accessor.getSessionId());
+            throw e;
         }
     }
 
-    private void handleDisconnect(String sessionId) {
-        Principal user = sessionUserMap.remove(sessionId);
-        if (user != null) System.out.println("Session STOMP déconnectée pour : " + user.getName());
-    }
-
-    private void handleOtherCommand(StompHeaderAccessor accessor, String sessionId, StompCommand command) {
+    private void requireUser(StompHeaderAccessor accessor, Message<?> message) {
         Principal user = accessor.getUser();
         if (user == null) {
-            user = sessionUserMap.get(sessionId);
-            if (user != null) accessor.setUser(user);
+            log.warn("stomp.frame.rejected session={} command={} destination={} reason=unauthenticated",
+                    accessor.getSessionId(), accessor.getCommand(), accessor.getDestination());
+            throw new MessageDeliveryException(message, "Frame STOMP refusée : utilisateur non authentifié");
         }
-        if (user == null) {
-            System.out.println("Commande STOMP " + command + " bloquée : utilisateur non authentifié");
-        } else {
-            System.out.println("STOMP " + command + " de l'utilisateur : " + user.getName()
-                    + " sur " + accessor.getDestination());
+
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextInt(logSampleRate) == 0) {
+            log.debug("stomp.frame session={} user={} command={} destination={} sample=1/{}",
+                    accessor.getSessionId(), user.getName(), accessor.getCommand(), accessor.getDestination(),
+                    logSampleRate);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Publié pour une frame DISCONNECT comme pour une fermeture brutale du socket ; Spring a déjà oublié le principal
+     * de la session, il ne reste qu'à tracer.
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        log.info("stomp.disconnect session={} user={} status={}", event.getSessionId(),
+                user != null ? user.getName() : "anonymous", event.getCloseStatus());
+    }
+}
@@ -1,35 +1,63 @@
 package perso.arcade.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 import perso.arcade.exception.JwtAuthenticationException;
 import perso.arcade.model.CustomUserDetails;
+import perso.arcade.model.entities.Player;
 import perso.arcade.service.PlayerService;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
-
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Jetons signés HS512 portant le pseudo, l'identifiant du joueur ({@code pid}) et ses rôles : le principal se
+ * reconstruit depuis le jeton seul. La clé et le parseur sont construits une fois ; un jeton déjà vérifié est gardé
+ * en cache sous son empreinte SHA-256, jusqu'à son expiration au plus tard.
+ */
 @Service
 public class JwtUtils {
 
-    private final PlayerService playerService;
-
-    @Value("${app.jwtSecret}")
-    private String jwtSecret;
-
-    @Value("${app.jwtExpirationMs}")
-    private int jwtExpirationMs;
+    private static final String CLAIM_PLAYER_ID = "pid";
+    private static final String CLAIM_ROLES = "roles";
 
-    public JwtUtils(PlayerService playerService) {
+    private final PlayerService playerService;
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final int jwtExpirationMs;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtils(PlayerService playerService,
+                    @Value("${app.jwtSecret}") String jwtSecret,
+                    @Value("${app.jwtExpirationMs}") int jwtExpirationMs,
+                    @Value("${app.jwt.cache.max-size:10000}") long cacheMaxSize,
+                    @Value("${app.jwt.cache.ttl-seconds:300}") long cacheTtlSeconds) {
         this.playerService = playerService;
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -40,51 +68,79 @@ public class JwtUtils {
 
         return Jwts.builder()
                 .subject(userPrincipal.getUsername())
+                .claim(CLAIM_PLAYER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryInstant))
-                .signWith(key())
+                .signWith(key)
                 .compact();
     }
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public String extractToken(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    /**
+     * Une vérification de signature au plus, aucune requête pour un jeton qui porte {@code pid}. Une nouvelle
+     * authentification est créée à chaque appel : l'appelant peut y attacher ses détails.
+     */
+    public UsernamePasswordAuthenticationToken getAuthenticationFromToken(String token) {
+        if (token == null) {
+            throw new JwtAuthenticationException("INVALID_OR_EXPIRED_TOKEN");
+        }
+
+        String digest = digest(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified == null) {
+            verified = verify(token);
+            verifiedTokens.put(digest, verified);
+        } else if (verified.expiresAt().isBefore(Instant.now())) {
+            verifiedTokens.invalidate(digest);
+            throw new JwtAuthenticationException("INVALID_OR_EXPIRED_TOKEN");
+        }
+        return new UsernamePasswordAuthenticationToken(verified.principal(), null, verified.authorities());
     }
 
-    public boolean validateJwtToken(String authToken) {
+    private VerifiedToken verify(String token) {
+        Claims claims;
         try {
-            Jwts.parser()
-                    .verifyWith(key())
-                    .build()
-                    .parseSignedClaims(authToken);
-
-            return true;
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtAuthenticationException("INVALID_OR_EXPIRED_TOKEN");
         }
+
+        String pseudo = claims.getSubject();
+        Long playerId = claims.get(CLAIM_PLAYER_ID, Long.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+
+        // Jetons émis avant l'ajout des claims : le joueur est résolu par son pseudo.
+        CustomUserDetails principal = playerId != null
+                ? new CustomUserDetails(new Player(playerId, pseudo, null))
+                : playerService.loadAuthenticatedUser(pseudo);
+        List<GrantedAuthority> authorities = roles != null
+                ? roles.stream().<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString())).toList()
+                : List.copyOf(principal.getAuthorities());
+
+        return new VerifiedToken(principal, authorities, claims.getExpiration().toInstant());
     }
 
-    public String extractToken(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
+    /**
+     * Le cache ne garde pas les jetons eux-mêmes.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return null;
     }
 
-    public UsernamePasswordAuthenticationToken getAuthenticationFromToken(String token) {
-        if (token == null || !validateJwtToken(token)) {
-            throw new JwtAuthenticationException("INVALID_OR_EXPIRED_TOKEN");
-        }
-        String username = getUserNameFromJwtToken(token);
-        UserDetails userDetails = playerService.loadUserByUsername(username);
-        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    private record VerifiedToken(CustomUserDetails principal, List<GrantedAuthority> authorities, Instant expiresAt) {
     }
-}
\ No newline at end of file
+}
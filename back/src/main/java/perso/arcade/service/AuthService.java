@@ -22,12 +22,14 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final PlayerCache playerCache;
 
-    public AuthService(PlayerRepository playerRepository, AuthenticationManager authenticationManager, JwtUtils jwtUtils, BCryptPasswordEncoder passwordEncoder) {
+    public AuthService(PlayerRepository playerRepository, AuthenticationManager authenticationManager, JwtUtils jwtUtils, BCryptPasswordEncoder passwordEncoder, PlayerCache playerCache) {
         this.playerRepository = playerRepository;
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
         this.passwordEncoder = passwordEncoder;
+        this.playerCache = playerCache;
     }
 
     public Player register(ConnexionDto connexionDto) {
@@ -36,7 +38,9 @@ public class AuthService {
         }
         String hashedPassword = passwordEncoder.encode(connexionDto.getPassword());
         Player player = new Player(null, connexionDto.getPseudo(), hashedPassword);
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        playerCache.invalidate(saved.getPseudo());
+        return saved;
     }
 
     public LoginResponseDto login(ConnexionDto connexionDto) {
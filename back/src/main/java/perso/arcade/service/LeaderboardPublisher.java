@@ -0,0 +1,68 @@
+package perso.arcade.service;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import perso.arcade.model.dto.LeaderboardDiffDto;
+import perso.arcade.service.leaderboard.GameLeaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diffuse les changements de rang sur /topic/leaderboard/{game}. Les changements d'une même fenêtre sont regroupés en
+ * un seul message par jeu : seul le premier ancien rang de chaque joueur est gardé, le nouveau rang est lu à l'envoi.
+ */
+@Component
+public class LeaderboardPublisher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LeaderboardStore leaderboardStore;
+    /**
+     * Par jeu, ancien rang de chaque joueur modifié dans la fenêtre en cours. Les cartes internes ne sont touchées que
+     * dans {@code compute}, atomique avec le {@code remove} de l'envoi.
+     */
+    private final Map<String, Map<Long, Integer>> pending = new ConcurrentHashMap<>();
+
+    public LeaderboardPublisher(SimpMessagingTemplate messagingTemplate, LeaderboardStore leaderboardStore) {
+        this.messagingTemplate = messagingTemplate;
+        this.leaderboardStore = leaderboardStore;
+    }
+
+    public void publish(String gameName, GameLeaderboard.RankChange change) {
+        pending.compute(gameName, (name, players) -> {
+            Map<Long, Integer> updated = players != null ? players : new HashMap<>();
+            updated.putIfAbsent(change.entry().playerId(), change.oldRank());
+            return updated;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.push.window-ms:250}")
+    public void flush() {
+        for (String gameName : pending.keySet()) {
+            Map<Long, Integer> players = pending.remove(gameName);
+            if (players == null || players.isEmpty()) {
+                continue;
+            }
+
+            GameLeaderboard board = leaderboardStore.get(gameName);
+            List<LeaderboardDiffDto.RankDelta> deltas = new ArrayList<>(players.size());
+            players.forEach((playerId, oldRank) -> {
+                GameLeaderboard.RankedEntry current = board.find(playerId);
+                // Même un rang inchangé est diffusé : le score affiché, lui, a changé.
+                if (current != null) {
+                    deltas.add(new LeaderboardDiffDto.RankDelta(current.entry().pseudo(), oldRank, current.rank(),
+                            current.entry().displayScore()));
+                }
+            });
+            deltas.sort(Comparator.comparingInt(LeaderboardDiffDto.RankDelta::newRank));
+
+            messagingTemplate.convertAndSend("/topic/leaderboard/" + gameName,
+                    new LeaderboardDiffDto(gameName, deltas));
+        }
+    }
+}
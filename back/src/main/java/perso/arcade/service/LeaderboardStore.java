@@ -0,0 +1,97 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import perso.arcade.model.dto.RankedScore;
+import perso.arcade.model.entities.Game;
+import perso.arcade.repository.GameRepository;
+import perso.arcade.service.leaderboard.GameLeaderboard;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classements de tous les jeux, chargés au démarrage puis tenus à jour à chaque record enregistré.
+ */
+@Component
+public class LeaderboardStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardStore.class);
+
+    private final GameRepository gameRepository;
+    private final int batchSize;
+    private final Map<String, GameLeaderboard> boards = new ConcurrentHashMap<>();
+    private final Map<Long, GameLeaderboard> boardsById = new ConcurrentHashMap<>();
+    private final AtomicLong provisionalIds = new AtomicLong(1L << 48);
+
+    public LeaderboardStore(GameRepository gameRepository,
+                            @Value("${leaderboard.warm-up.batch-size:5000}") int batchSize) {
+        this.gameRepository = gameRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Chaque jeu est lu par pages de {@code batchSize} avec un curseur (score, id), pour ne jamais tenir toute la
+     * table en mémoire. {@link GameLeaderboard#offer} ne garde que le meilleur score : un record enregistré pendant
+     * le chargement n'est pas écrasé.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long loaded = 0;
+        for (Game game : gameRepository.findAll()) {
+            GameLeaderboard board = board(game);
+
+            RankedScore after = null;
+            List<RankedScore> scores;
+            do {
+                scores = gameRepository.getScoresAfter(game, after, batchSize);
+                for (RankedScore score : scores) {
+                    board.offer(score.playerId(), score.pseudo(), score.score(), score.recordId());
+                }
+                loaded += scores.size();
+                after = scores.isEmpty() ? after : scores.get(scores.size() - 1);
+            } while (scores.size() == batchSize);
+        }
+        log.info("{} classements chargés, {} records", boards.size(), loaded);
+    }
+
+    public GameLeaderboard get(String gameName) {
+        GameLeaderboard board = boards.get(gameName);
+        if (board != null) {
+            return board;
+        }
+
+        Game game = gameRepository.findByName(gameName)
+                .orElseThrow(() -> new RuntimeException("Game not found with name: " + gameName));
+        return board(game);
+    }
+
+    /**
+     * Classement d'un jeu par identifiant, {@code null} s'il n'est pas encore chargé.
+     */
+    public GameLeaderboard get(long gameId) {
+        return boardsById.get(gameId);
+    }
+
+    private GameLeaderboard board(Game game) {
+        return boards.computeIfAbsent(game.getName(), name -> {
+            GameLeaderboard board = new GameLeaderboard(game.getId(), game.isLowerIsBetter());
+            boardsById.put(game.getId(), board);
+            return board;
+        });
+    }
+
+    /**
+     * Identifiant provisoire d'un record pas encore inséré, qui ne sert qu'à départager les égalités : il est plus
+     * grand que ceux de la base, comme le sera l'identifiant réel.
+     */
+    public long nextProvisionalId() {
+        return provisionalIds.incrementAndGet();
+    }
+}
@@ -7,9 +7,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import perso.arcade.model.dto.MessageDto;
+import perso.arcade.model.dto.PlayerRef;
 import perso.arcade.model.entities.Message;
-import perso.arcade.model.entities.Player;
 import perso.arcade.repository.MessageRepository;
+import perso.arcade.repository.PlayerRepository;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -18,11 +19,13 @@ import java.time.ZoneId;
 public class MessageService {
 
     private final MessageRepository messageRepository;
+    private final PlayerRepository playerRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final UtilsService utilsService;
 
-    public MessageService(MessageRepository messageRepository, SimpMessagingTemplate messagingTemplate, UtilsService utilsService) {
+    public MessageService(MessageRepository messageRepository, PlayerRepository playerRepository, SimpMessagingTemplate messagingTemplate, UtilsService utilsService) {
         this.messageRepository = messageRepository;
+        this.playerRepository = playerRepository;
         this.messagingTemplate = messagingTemplate;
         this.utilsService = utilsService;
     }
@@ -32,17 +35,17 @@ public class MessageService {
             throw new IllegalArgumentException("Le message ne peut pas être vide ou ne contenir que des espaces.");
         }
 
-        Player player = utilsService.getPlayer();
+        PlayerRef player = utilsService.getPlayer();
 
         Message msg = new Message();
-        msg.setPlayer(player);
+        msg.setPlayer(playerRepository.getReferenceById(player.id()));
         msg.setContent(message);
         ZoneId parisZone = ZoneId.of("Europe/Paris");
         msg.setTimestamp(LocalDateTime.now(parisZone));
         msg = messageRepository.save(msg);
 
         messagingTemplate.convertAndSend("/topic/chat",
-                new MessageDto(msg.getId(), player.getPseudo(), msg.getContent(), msg.getTimestamp()));
+                new MessageDto(msg.getId(), player.pseudo(), msg.getContent(), msg.getTimestamp()));
     }
 
     public Page<MessageDto> getMessages(int page, int size) {
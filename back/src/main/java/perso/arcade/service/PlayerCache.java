@@ -0,0 +1,61 @@
+package perso.arcade.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import perso.arcade.model.dto.PlayerRef;
+import perso.arcade.repository.PlayerRepository;
+
+import java.time.Duration;
+
+/**
+ * Cache borné pseudo → identifiant de joueur. Un pseudo inconnu n'est pas mis en cache : une inscription est visible
+ * tout de suite. Une inscription ou un renommage doit appeler {@link #invalidate(String)}, rejoué après le commit.
+ */
+@Component
+public class PlayerCache {
+
+    private final LoadingCache<String, PlayerRef> byPseudo;
+
+    public PlayerCache(PlayerRepository playerRepository,
+                       @Value("${player.cache.max-size:10000}") long maxSize,
+                       @Value("${player.cache.expire-after-write-minutes:60}") long expireMinutes) {
+        this.byPseudo = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .build(pseudo -> playerRepository.findByPseudo(pseudo)
+                        .map(player -> new PlayerRef(player.getId(), player.getPseudo()))
+                        .orElse(null));
+    }
+
+    /**
+     * {@code null} si aucun joueur n'a ce pseudo.
+     */
+    public PlayerRef find(String pseudo) {
+        return byPseudo.get(pseudo);
+    }
+
+    public PlayerRef get(String pseudo) {
+        PlayerRef player = find(pseudo);
+        if (player == null) {
+            throw new RuntimeException("Joueur non trouvé : " + pseudo);
+        }
+        return player;
+    }
+
+    public void invalidate(String pseudo) {
+        byPseudo.invalidate(pseudo);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    byPseudo.invalidate(pseudo);
+                }
+            });
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import perso.arcade.model.CustomUserDetails;
+import perso.arcade.model.dto.PlayerRef;
 import perso.arcade.model.entities.Player;
 import perso.arcade.repository.PlayerRepository;
 
@@ -11,9 +12,11 @@ import perso.arcade.repository.PlayerRepository;
 public class PlayerService implements UserDetailsService {
 
     private final PlayerRepository playerRepository;
+    private final PlayerCache playerCache;
 
-    public PlayerService(PlayerRepository playerRepository) {
+    public PlayerService(PlayerRepository playerRepository, PlayerCache playerCache) {
         this.playerRepository = playerRepository;
+        this.playerCache = playerCache;
     }
 
     @Override
@@ -22,4 +25,15 @@ public class PlayerService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec le pseudo: " + pseudo));
         return new CustomUserDetails(player);
     }
+
+    /**
+     * Pour un jeton déjà vérifié : le joueur est résolu depuis le cache, sans mot de passe.
+     */
+    public CustomUserDetails loadAuthenticatedUser(String pseudo) {
+        PlayerRef player = playerCache.find(pseudo);
+        if (player == null) {
+            throw new UsernameNotFoundException("Utilisateur non trouvé avec le pseudo: " + pseudo);
+        }
+        return new CustomUserDetails(new Player(player.id(), player.pseudo(), null));
+    }
 }
\ No newline at end of file
@@ -1,102 +1,119 @@
 package perso.arcade.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import perso.arcade.model.dto.ClassementDto;
+import perso.arcade.model.dto.LeaderboardPageDto;
+import perso.arcade.model.dto.PlayerRef;
 import perso.arcade.model.dto.SaveRecordDto;
-import perso.arcade.model.entities.Game;
-import perso.arcade.model.entities.Player;
-import perso.arcade.model.entities.Record;
-import perso.arcade.repository.GameRepository;
-import perso.arcade.repository.PlayerRepository;
-import perso.arcade.repository.RecordRepository;
-
-import java.time.LocalDateTime;
+import perso.arcade.model.dto.SaveRecordResultDto;
+import perso.arcade.service.leaderboard.GameLeaderboard;
+
 import java.util.List;
 
 @Service
 public class RecordService {
 
-    private final RecordRepository recordRepository;
-    private final PlayerRepository playerRepository;
-    private final GameRepository gameRepository;
+    private final PlayerCache playerCache;
     private final UtilsService utilsService;
-
-    public RecordService(RecordRepository recordRepository, PlayerRepository playerRepository, GameRepository gameRepository, UtilsService utilsService) {
-        this.recordRepository = recordRepository;
-        this.playerRepository = playerRepository;
-        this.gameRepository = gameRepository;
+    private final LeaderboardStore leaderboardStore;
+    private final LeaderboardPublisher leaderboardPublisher;
+    private final RecordWriteBehind recordWriteBehind;
+    private final int maxPageSize;
+
+    public RecordService(PlayerCache playerCache, UtilsService utilsService, LeaderboardStore leaderboardStore,
+                         LeaderboardPublisher leaderboardPublisher, RecordWriteBehind recordWriteBehind,
+                         @Value("${leaderboard.max-page-size:100}") int maxPageSize) {
+        this.playerCache = playerCache;
         this.utilsService = utilsService;
+        this.leaderboardStore = leaderboardStore;
+        this.leaderboardPublisher = leaderboardPublisher;
+        this.recordWriteBehind = recordWriteBehind;
+        this.maxPageSize = maxPageSize;
     }
 
-    public Record saveRecord(SaveRecordDto saveRecordDto) {
-        String pseudo = utilsService.getPseudo();
-        Player player = playerRepository.findByPseudo(pseudo)
-                .orElseThrow(() -> new RuntimeException("Player not found with pseudo: " + pseudo));
-
-        Game game = gameRepository.findByName(saveRecordDto.getGameName())
-                .orElseThrow(() -> new RuntimeException("Game not found with name: " + saveRecordDto.getGameName()));
-
-        Record existingRecord = recordRepository.findByPlayerAndGame(player, game).orElse(null);
-
-        Long newScore = saveRecordDto.getScore();
-
-        if (existingRecord != null) {
-            Long currentScore = existingRecord.getScore();
-
-            boolean shouldUpdate = game.isLowerIsBetter()
-                    ? newScore < currentScore   // si lower is better → plus petit est meilleur
-                    : newScore > currentScore;  // sinon → plus grand est meilleur
-
-            if (shouldUpdate) {
-                existingRecord.setScore(newScore);
-                existingRecord.setRecordDate(LocalDateTime.now());
-                return recordRepository.save(existingRecord);
-            } else {
-                return existingRecord;
-            }
-        } else {
-            Record record = new Record();
-            record.setScore(saveRecordDto.getScore());
-            record.setRecordDate(LocalDateTime.now());
-            record.setPlayer(player);
-            record.setGame(game);
-            return recordRepository.save(record);
+    /**
+     * Le meilleur score est tranché en mémoire ; l'écriture en base est différée et groupée par
+     * {@link RecordWriteBehind}.
+     */
+    public SaveRecordResultDto saveRecord(SaveRecordDto saveRecordDto) {
+        if (saveRecordDto.getScore() == null) {
+            throw new IllegalArgumentException("Score manquant");
+        }
+        PlayerRef player = utilsService.getPlayer();
+        GameLeaderboard board = leaderboardStore.get(saveRecordDto.getGameName());
+
+        GameLeaderboard.RankChange change = recordWriteBehind.submit(board, player, saveRecordDto.getScore());
+        if (change != null) {
+            leaderboardPublisher.publish(saveRecordDto.getGameName(), change);
+            return new SaveRecordResultDto(change.entry().score(), change.entry().displayScore(), change.newRank(),
+                    true);
         }
 
+        GameLeaderboard.RankedEntry best = board.find(player.id());
+        return new SaveRecordResultDto(best.entry().score(), best.entry().displayScore(), best.rank(), false);
     }
 
-    public List<ClassementDto> getLeaderboard(String gameName) {
-        Game game = gameRepository.findByName(gameName)
-                .orElseThrow(() -> new RuntimeException("Game not found with name: " + gameName));
-
-        List<ClassementDto> classementDtoList = gameRepository.getLeaderboard(gameName, game.isLowerIsBetter());
+    /**
+     * Les {@code limit} premiers du classement, servis depuis la mémoire et bornés à {@code maxPageSize} ; sans
+     * {@code limit}, le classement complet comme avant la pagination (préférer {@link #getLeaderboardPage}).
+     */
+    public List<ClassementDto> getLeaderboard(String gameName, Integer limit) {
+        GameLeaderboard board = leaderboardStore.get(gameName);
+        return toDtos(board.range(1, limit != null ? pageSize(limit) : board.size()));
+    }
 
-        for (ClassementDto dto : classementDtoList) {
-            if (game.isLowerIsBetter()) {
-                dto.setScore(formatTime(dto.getScore()));
-            } else {
-                dto.setScore(String.valueOf(dto.getScore()));
-            }
+    /**
+     * Page suivant le curseur (score, id de record) ; sans curseur, la première page.
+     */
+    public LeaderboardPageDto getLeaderboardPage(String gameName, Long afterScore, Long afterId, Integer size) {
+        GameLeaderboard board = leaderboardStore.get(gameName);
+        int count = pageSize(size);
+        List<GameLeaderboard.RankedEntry> entries = afterScore != null && afterId != null
+                ? board.after(afterScore, afterId, count)
+                : board.range(1, count);
+
+        if (entries.size() < count) {
+            return new LeaderboardPageDto(toDtos(entries), null, null);
         }
+        GameLeaderboard.Entry last = entries.get(entries.size() - 1).entry();
+        return new LeaderboardPageDto(toDtos(entries), last.score(), last.recordId());
+    }
 
-        return classementDtoList;
+    /**
+     * Rang du joueur connecté, {@code null} s'il n'a pas de record sur ce jeu.
+     */
+    public ClassementDto getMyRank(String gameName) {
+        List<ClassementDto> around = getAroundMe(gameName, 0);
+        return around.isEmpty() ? null : around.get(0);
     }
 
-    private String formatTime(String millis) {
-        long ms = Long.parseLong(millis);
-        long minutes = ms / 60000;
-        long seconds = (ms % 60000) / 1000;
-        return String.format("%dm%02ds", minutes, seconds);
+    public List<ClassementDto> getAroundMe(String gameName, int radius) {
+        return around(gameName, utilsService.getPlayer(), radius);
     }
 
-    public Long getBestScore(String gameName) {
-        Player player = utilsService.getPlayer();
+    public List<ClassementDto> getAroundPlayer(String gameName, String pseudo, int radius) {
+        return around(gameName, playerCache.get(pseudo), radius);
+    }
+
+    private List<ClassementDto> around(String gameName, PlayerRef player, int radius) {
+        int bounded = Math.max(0, Math.min(radius, maxPageSize / 2));
+        return toDtos(leaderboardStore.get(gameName).around(player.id(), bounded));
+    }
 
-        Game game = gameRepository.findByName(gameName)
-                .orElseThrow(() -> new RuntimeException("Game not found with name: " + gameName));
+    private int pageSize(Integer requested) {
+        return requested != null ? Math.max(1, Math.min(requested, maxPageSize)) : maxPageSize;
+    }
 
-        return recordRepository.findByPlayerAndGame(player, game)
-                .map(Record::getScore) // retourne le score
-                .orElse(0L); // si aucun record, renvoyer 0
+    private List<ClassementDto> toDtos(List<GameLeaderboard.RankedEntry> entries) {
+        return entries.stream()
+                .map(ranked -> new ClassementDto(ranked.rank(), ranked.entry().pseudo(), ranked.entry().displayScore()))
+                .toList();
+    }
+
+    public Long getBestScore(String gameName) {
+        PlayerRef player = utilsService.getPlayer();
+        GameLeaderboard.RankedEntry best = leaderboardStore.get(gameName).find(player.id());
+        return best != null ? best.entry().score() : 0L; // si aucun record, renvoyer 0
     }
 }
\ No newline at end of file
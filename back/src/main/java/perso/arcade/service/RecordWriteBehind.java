@@ -0,0 +1,202 @@
+package perso.arcade.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import perso.arcade.model.dto.PlayerRef;
+import perso.arcade.model.dto.RecordUpsert;
+import perso.arcade.model.dto.StoredRecord;
+import perso.arcade.repository.RecordRepository;
+import perso.arcade.service.leaderboard.GameLeaderboard;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écriture différée des records : le meilleur score est comparé au classement en mémoire, seules les améliorations
+ * sont mises en file puis écrites par lots d'upserts, où la base tranche à nouveau. La file est bornée : quand elle
+ * est pleine, la soumission attend une place puis échoue. Un lot en échec n'est jamais abandonné, le classement
+ * montrant déjà ses scores : il garde ses places et est réessayé avec un délai croissant jusqu'au retour de la base,
+ * ce qui bloque les nouvelles soumissions une fois la file pleine. Au-delà de {@code alertAfterAttempts} tentatives,
+ * chaque échec est journalisé en erreur.
+ */
+@Component
+public class RecordWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordWriteBehind.class);
+
+    private final RecordRepository recordRepository;
+    private final LeaderboardStore leaderboardStore;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final int alertAfterAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final Semaphore capacity;
+    private final Queue<RecordUpsert> queue = new ConcurrentLinkedQueue<>();
+    /**
+     * Lot en échec à réécrire avant tout autre, à partir de {@code retryAt}. Protégés par le verrou de {@link #flush}.
+     */
+    private Batch failed;
+    private long retryAt;
+
+    public RecordWriteBehind(RecordRepository recordRepository,
+                             LeaderboardStore leaderboardStore,
+                             @Value("${record.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${record.write-behind.batch-size:500}") int batchSize,
+                             @Value("${record.write-behind.offer-timeout-ms:2000}") long offerTimeoutMs,
+                             @Value("${record.write-behind.alert-after-attempts:10}") int alertAfterAttempts,
+                             @Value("${record.write-behind.retry-base-delay-ms:1000}") long retryBaseDelayMs,
+                             @Value("${record.write-behind.retry-max-delay-ms:60000}") long retryMaxDelayMs) {
+        this.recordRepository = recordRepository;
+        this.leaderboardStore = leaderboardStore;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.alertAfterAttempts = alertAfterAttempts;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.capacity = new Semaphore(queueCapacity);
+    }
+
+    /**
+     * La place en file est réservée avant de toucher au classement, pour ne jamais accepter un score qui ne pourrait
+     * pas être écrit. Retourne {@code null} si le score n'améliore pas le record du joueur.
+     */
+    public GameLeaderboard.RankChange submit(GameLeaderboard board, PlayerRef player, long score) {
+        try {
+            if (!capacity.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Trop de scores en attente, réessayez plus tard");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Soumission du score interrompue", e);
+        }
+
+        GameLeaderboard.RankChange change = board.submit(player.id(), player.pseudo(), score,
+                leaderboardStore::nextProvisionalId);
+        if (change == null) {
+            capacity.release();
+            return null;
+        }
+
+        queue.add(new RecordUpsert(player.id(), board.getGameId(), score, board.isLowerIsBetter(),
+                LocalDateTime.now()));
+        return change;
+    }
+
+    /**
+     * Vide la file par lots ; plusieurs améliorations d'un même joueur sur un même jeu n'en font qu'une. Un lot en
+     * échec passe avant la file et bloque le vidage jusqu'à son prochain essai : l'upsert ne garde que le meilleur
+     * score, le réessayer est sans risque.
+     */
+    @Scheduled(fixedDelayString = "${record.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (failed != null && System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        Batch batch;
+        while ((batch = failed != null ? failed : drain()) != null) {
+            if (!write(batch)) {
+                return;
+            }
+        }
+    }
+
+    private Batch drain() {
+        Map<List<Long>, RecordUpsert> records = new LinkedHashMap<>();
+        int drained = 0;
+        RecordUpsert record;
+        while (drained < batchSize && (record = queue.poll()) != null) {
+            // Deux soumissions concurrentes peuvent arriver dans le désordre : on garde la meilleure.
+            records.merge(List.of(record.playerId(), record.gameId()), record, RecordWriteBehind::better);
+            drained++;
+        }
+        return drained > 0 ? new Batch(new ArrayList<>(records.values()), drained) : null;
+    }
+
+    /**
+     * Les places du lot ne sont rendues qu'une fois écrit. Retourne {@code false} si le lot attend un nouvel essai.
+     */
+    private boolean write(Batch batch) {
+        try {
+            reconcile(recordRepository.upsertBest(batch.records));
+        } catch (RuntimeException e) {
+            batch.attempts++;
+            long delay = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(batch.attempts - 1, 20));
+            if (batch.attempts < alertAfterAttempts) {
+                log.warn("Écriture de {} records impossible (tentative {}), nouvel essai dans {} ms: {}",
+                        batch.records.size(), batch.attempts, delay, e.getMessage());
+            } else {
+                log.error("Écriture de {} records impossible depuis {} tentatives, soumissions bloquées une fois la "
+                                + "file pleine ({} en file), nouvel essai dans {} ms: {}",
+                        batch.records.size(), batch.attempts, queue.size(), delay, e.getMessage());
+            }
+            failed = batch;
+            retryAt = System.currentTimeMillis() + delay;
+            return false;
+        }
+        failed = null;
+        capacity.release(batch.permits);
+        return true;
+    }
+
+    /**
+     * La base a pu garder un meilleur score que la mémoire (soumission avant la fin du chargement, autre instance) :
+     * le classement le reprend, {@link GameLeaderboard#offer} ignorant tout ce qui n'est pas meilleur. L'identifiant
+     * provisoire d'un nouveau record est ensuite remplacé par celui de la base, qui sert de curseur de pagination.
+     */
+    private void reconcile(List<StoredRecord> stored) {
+        for (StoredRecord record : stored) {
+            GameLeaderboard board = leaderboardStore.get(record.gameId());
+            GameLeaderboard.RankedEntry current = board != null ? board.find(record.playerId()) : null;
+            if (current == null) {
+                continue;
+            }
+            if (current.entry().score() != record.score()) {
+                board.offer(record.playerId(), current.entry().pseudo(), record.score(), record.id());
+            }
+            board.rekey(record.playerId(), record.score(), record.id());
+        }
+    }
+
+    private static RecordUpsert better(RecordUpsert a, RecordUpsert b) {
+        boolean bIsBetter = a.lowerIsBetter() ? b.score() < a.score() : b.score() > a.score();
+        return bIsBetter ? b : a;
+    }
+
+    /**
+     * Dernier essai sans attendre la fin du délai ; ce qui n'a pas pu être écrit est perdu.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        retryAt = 0;
+        flush();
+        if (failed != null) {
+            log.error("Arrêt : {} records non écrits, {} en file", failed.records.size(), queue.size());
+        }
+    }
+
+    /**
+     * {@code permits} : soumissions fusionnées dans le lot, autant de places à rendre.
+     */
+    private static final class Batch {
+        final List<RecordUpsert> records;
+        final int permits;
+        int attempts;
+
+        Batch(List<RecordUpsert> records, int permits) {
+            this.records = records;
+            this.permits = permits;
+        }
+    }
+}
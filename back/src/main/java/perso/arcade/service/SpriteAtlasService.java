@@ -0,0 +1,459 @@
+package perso.arcade.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import perso.arcade.model.dto.AtlasDto;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.service.image.MaxRectsPacker;
+import perso.arcade.service.image.PixelSheet;
+import perso.arcade.service.image.SpritePngWriter;
+import perso.arcade.service.image.SpriteSheetTransformer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Regroupe les frames de plusieurs sprites dans quelques pages PNG (placement MaxRects). Le placement est conservé
+ * sur disque ({@code atlas/<id>/manifest.json}) ; quand un membre change, seules ses frames sont replacées et seules
+ * les pages touchées sont redessinées.
+ * <p>
+ * Seuls les placements récents restent en mémoire. Un atlas absent du cache et dont le manifeste n'a pas été relu
+ * depuis {@code sprite.atlas.retention-days} est supprimé du disque ; il sera reconstruit à la demande.
+ */
+@Service
+public class SpriteAtlasService {
+
+    public static final String ATLAS_FOLDER = "atlas";
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteAtlasService.class);
+    private static final String MANIFEST = "manifest.json";
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path atlasRoot;
+    private final SpriteInfosCache spriteInfosCache;
+    private final SpriteBlobStore spriteBlobStore;
+    private final SpriteSheetTransformer spriteSheetTransformer;
+    private final SpritePngWriter spritePngWriter;
+    private final SpriteDeliveryService spriteDeliveryService;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Duration retention;
+    private final Cache<String, AtlasLayout> layouts;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public SpriteAtlasService(SpriteInfosCache spriteInfosCache,
+                              SpriteBlobStore spriteBlobStore,
+                              SpriteSheetTransformer spriteSheetTransformer,
+                              SpritePngWriter spritePngWriter,
+                              SpriteDeliveryService spriteDeliveryService,
+                              ObjectMapper objectMapper,
+                              @Value("${sprite.storage.root}") String storageRoot,
+                              @Value("${sprite.atlas.page-size:2048}") int pageSize,
+                              @Value("${sprite.atlas.cache-max-size:256}") long cacheMaxSize,
+                              @Value("${sprite.atlas.cache-expire-after-access-minutes:60}") long expireMinutes,
+                              @Value("${sprite.atlas.retention-days:30}") long retentionDays) {
+        this.spriteInfosCache = spriteInfosCache;
+        this.spriteBlobStore = spriteBlobStore;
+        this.spriteSheetTransformer = spriteSheetTransformer;
+        this.spritePngWriter = spritePngWriter;
+        this.spriteDeliveryService = spriteDeliveryService;
+        this.objectMapper = objectMapper;
+        this.atlasRoot = Paths.get(storageRoot).toAbsolutePath().normalize().resolve(ATLAS_FOLDER);
+        this.pageSize = pageSize;
+        this.retention = Duration.ofDays(retentionDays);
+        this.layouts = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(Duration.ofMinutes(expireMinutes))
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public AtlasDto getAtlas(List<String> spriteNames) {
+        List<String> names = spriteNames.stream().distinct().sorted().toList();
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Aucun sprite demandé");
+        }
+
+        List<SpriteInfos> animations = names.stream()
+                .flatMap(name -> spriteInfosCache.getAllAnimationsBySpriteName(name).stream())
+                .filter(info -> info.getFrames() > 0)
+                .toList();
+        Map<FrameKey, FrameSize> required = requiredFrames(animations);
+        String atlasId = atlasId(names);
+
+        AtlasLayout layout;
+        synchronized (lock(atlasId)) {
+            AtlasLayout previous = layouts.get(atlasId, this::readManifest);
+            layout = previous != null && previous.matches(required, pageSize)
+                    ? previous
+                    : rebuild(atlasId, previous, required);
+        }
+
+        return toDto(atlasId, layout, animations);
+    }
+
+    /**
+     * Supprime les atlas qui ne sont plus en cache et dont le manifeste n'a pas été relu pendant la rétention.
+     */
+    @Scheduled(
+            initialDelayString = "${sprite.atlas.gc-interval-ms:3600000}",
+            fixedDelayString = "${sprite.atlas.gc-interval-ms:3600000}"
+    )
+    public void collectGarbage() {
+        if (Files.notExists(atlasRoot)) {
+            return;
+        }
+
+        List<Path> directories;
+        try (Stream<Path> children = Files.list(atlasRoot)) {
+            directories = children.filter(Files::isDirectory).toList();
+        } catch (IOException e) {
+            log.warn("Parcours des atlas impossible: {}", e.getMessage());
+            return;
+        }
+
+        Instant limit = Instant.now().minus(retention);
+        int deleted = 0;
+        for (Path directory : directories) {
+            String atlasId = directory.getFileName().toString();
+            synchronized (lock(atlasId)) {
+                if (layouts.getIfPresent(atlasId) == null && lastUsed(directory).isBefore(limit)) {
+                    deleted += deleteAtlas(directory) ? 1 : 0;
+                }
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("{} atlas inutilisés supprimés", deleted);
+        }
+    }
+
+    private Instant lastUsed(Path directory) {
+        Path manifest = directory.resolve(MANIFEST);
+        try {
+            return Files.getLastModifiedTime(Files.exists(manifest) ? manifest : directory).toInstant();
+        } catch (IOException e) {
+            return Instant.now();
+        }
+    }
+
+    private boolean deleteAtlas(Path directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+            spriteDeliveryService.invalidateTree(directory);
+            return true;
+        } catch (IOException e) {
+            log.warn("Atlas {} non supprimé: {}", directory.getFileName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<FrameKey, FrameSize> requiredFrames(List<SpriteInfos> animations) {
+        Map<FrameKey, FrameSize> required = new LinkedHashMap<>();
+        for (SpriteInfos info : animations) {
+            String hash = SpriteBlobStore.hashOf(info.getImageUrl());
+            FrameSize size = new FrameSize(info.getWidth() / info.getFrames(), info.getHeight());
+            for (int frame = 0; frame < info.getFrames(); frame++) {
+                required.put(new FrameKey(hash, frame), size);
+            }
+        }
+        return required;
+    }
+
+    /**
+     * Garde les frames inchangées à leur place et ne place que les nouvelles. Si plus de la moitié de la surface est
+     * devenue inutile, l'atlas est entièrement refait.
+     */
+    private AtlasLayout rebuild(String atlasId, AtlasLayout previous, Map<FrameKey, FrameSize> required) {
+        AtlasLayout stale = previous;
+        List<Placement> kept = new ArrayList<>();
+        List<Placement> removed = new ArrayList<>();
+
+        if (previous != null && previous.pageSize() == pageSize) {
+            for (Placement placement : previous.placements()) {
+                FrameSize size = required.get(placement.key());
+                boolean unchanged = size != null && size.width() == placement.width()
+                        && size.height() == placement.height();
+                (unchanged ? kept : removed).add(placement);
+            }
+            if (area(removed) > area(kept)) {
+                kept.clear();
+                removed.clear();
+                previous = null;
+            }
+        } else {
+            previous = null;
+        }
+
+        MaxRectsPacker packer = new MaxRectsPacker(pageSize);
+        kept.forEach(placement -> packer.occupy(placement.page(), placement.rect()));
+
+        Set<FrameKey> keptKeys = new HashSet<>();
+        kept.forEach(placement -> keptKeys.add(placement.key()));
+
+        List<Map.Entry<FrameKey, FrameSize>> toPlace = required.entrySet().stream()
+                .filter(entry -> !keptKeys.contains(entry.getKey()))
+                .sorted(Comparator.<Map.Entry<FrameKey, FrameSize>>comparingInt(entry -> entry.getValue().height())
+                        .thenComparingInt(entry -> entry.getValue().width())
+                        .reversed())
+                .toList();
+
+        List<Placement> added = new ArrayList<>();
+        for (Map.Entry<FrameKey, FrameSize> entry : toPlace) {
+            MaxRectsPacker.Placement position = packer.insert(entry.getValue().width(), entry.getValue().height());
+            if (position == null) {
+                throw new IllegalArgumentException("Frame plus grande qu'une page d'atlas: " + entry.getValue());
+            }
+            MaxRectsPacker.Rect rect = position.rect();
+            added.add(new Placement(entry.getKey(), position.page(), rect.x(), rect.y(), rect.width(), rect.height()));
+        }
+
+        List<Placement> placements = new ArrayList<>(kept);
+        placements.addAll(added);
+
+        List<String> pages = renderPages(atlasId, previous, packer.pageCount(), placements, removed, added);
+        AtlasLayout layout = new AtlasLayout(pageSize, pages, placements);
+
+        writeManifest(atlasId, layout);
+        deleteUnusedPages(atlasId, stale, pages);
+        layouts.put(atlasId, layout);
+
+        log.info("Atlas {} reconstruit: {} frames conservées, {} placées, {} pages",
+                atlasId, kept.size(), added.size(), pages.size());
+        return layout;
+    }
+
+    private List<String> renderPages(String atlasId, AtlasLayout previous, int pageCount, List<Placement> placements,
+                                     List<Placement> removed, List<Placement> added) {
+        Set<Integer> dirty = new HashSet<>();
+        removed.forEach(placement -> dirty.add(placement.page()));
+        added.forEach(placement -> dirty.add(placement.page()));
+
+        Map<String, PixelSheet> sheets = new HashMap<>();
+        try {
+            List<String> pages = new ArrayList<>();
+            for (int page = 0; page < pageCount; page++) {
+                boolean reusable = previous != null && page < previous.pages().size() && !dirty.contains(page);
+                pages.add(reusable
+                        ? previous.pages().get(page)
+                        : renderPage(atlasId, previous, page, placements, removed, added, sheets));
+            }
+            return pages;
+        } finally {
+            sheets.values().forEach(PixelSheet::close);
+        }
+    }
+
+    private String renderPage(String atlasId, AtlasLayout previous, int page, List<Placement> placements,
+                              List<Placement> removed, List<Placement> added, Map<String, PixelSheet> sheets) {
+        try (PixelSheet canvas = spriteSheetTransformer.allocate(pageSize, pageSize)) {
+            if (previous != null && page < previous.pages().size()) {
+                BufferedImage base = ImageIO.read(pagePath(atlasId, previous.pages().get(page)).toFile());
+                if (base != null) {
+                    try (PixelSheet basePixels = spriteSheetTransformer.load(base)) {
+                        spriteSheetTransformer.copyRect(basePixels, 0, 0, canvas, 0, 0,
+                                basePixels.width(), basePixels.height());
+                    }
+                }
+            }
+
+            for (Placement placement : removed) {
+                if (placement.page() == page) {
+                    spriteSheetTransformer.clearRect(canvas, placement.x(), placement.y(),
+                            placement.width(), placement.height());
+                }
+            }
+
+            for (Placement placement : added) {
+                if (placement.page() == page) {
+                    PixelSheet sheet = sheets.computeIfAbsent(placement.key().blobHash(), this::loadSheet);
+                    spriteSheetTransformer.copyRect(sheet, placement.key().frame() * placement.width(), 0,
+                            canvas, placement.x(), placement.y(), placement.width(), placement.height());
+                }
+            }
+
+            int usedWidth = 1;
+            int usedHeight = 1;
+            for (Placement placement : placements) {
+                if (placement.page() == page) {
+                    usedWidth = Math.max(usedWidth, placement.x() + placement.width());
+                    usedHeight = Math.max(usedHeight, placement.y() + placement.height());
+                }
+            }
+
+            try (PixelSheet trimmed = spriteSheetTransformer.allocate(usedWidth, usedHeight)) {
+                spriteSheetTransformer.copyRect(canvas, 0, 0, trimmed, 0, 0, usedWidth, usedHeight);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                spritePngWriter.writeLossless(trimmed, out);
+                return writePage(atlasId, out.toByteArray());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private PixelSheet loadSheet(String blobHash) {
+        try {
+            BufferedImage image = ImageIO.read(spriteBlobStore.path(blobHash).toFile());
+            if (image == null) {
+                throw new IOException("Blob illisible: " + blobHash);
+            }
+            return spriteSheetTransformer.load(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String writePage(String atlasId, byte[] data) throws IOException {
+        String hash = SpriteBlobStore.sha256(data);
+        Path target = pagePath(atlasId, hash);
+        if (Files.notExists(target)) {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return hash;
+    }
+
+    private void deleteUnusedPages(String atlasId, AtlasLayout previous, List<String> pages) {
+        if (previous == null) {
+            return;
+        }
+        for (String hash : previous.pages()) {
+            if (!pages.contains(hash)) {
+                try {
+                    Files.deleteIfExists(pagePath(atlasId, hash));
+                } catch (IOException e) {
+                    log.warn("Page d'atlas {} non supprimée: {}", hash, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private AtlasLayout readManifest(String atlasId) {
+        Path manifest = atlasRoot.resolve(atlasId).resolve(MANIFEST);
+        if (Files.notExists(manifest)) {
+            return null;
+        }
+        try {
+            AtlasLayout layout = objectMapper.readValue(manifest.toFile(), AtlasLayout.class);
+            // Date de dernière utilisation pour le ramasse-miettes
+            Files.setLastModifiedTime(manifest, FileTime.from(Instant.now()));
+            return layout;
+        } catch (IOException e) {
+            log.warn("Manifeste d'atlas {} illisible, reconstruction complète: {}", atlasId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeManifest(String atlasId, AtlasLayout layout) {
+        Path manifest = atlasRoot.resolve(atlasId).resolve(MANIFEST);
+        try {
+            Files.createDirectories(manifest.getParent());
+            Path tmp = Files.createTempFile(manifest.getParent(), MANIFEST, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), layout);
+            Files.move(tmp, manifest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur écriture manifeste d'atlas " + atlasId, e);
+        }
+    }
+
+    private AtlasDto toDto(String atlasId, AtlasLayout layout, List<SpriteInfos> animations) {
+        Map<FrameKey, Placement> byKey = new HashMap<>();
+        layout.placements().forEach(placement -> byKey.put(placement.key(), placement));
+
+        List<AtlasDto.AtlasAnimation> atlasAnimations = new ArrayList<>();
+        for (SpriteInfos info : animations) {
+            String hash = SpriteBlobStore.hashOf(info.getImageUrl());
+            List<AtlasDto.AtlasFrame> frames = new ArrayList<>();
+            for (int frame = 0; frame < info.getFrames(); frame++) {
+                Placement placement = byKey.get(new FrameKey(hash, frame));
+                frames.add(new AtlasDto.AtlasFrame(placement.page(), placement.x(), placement.y()));
+            }
+
+            atlasAnimations.add(new AtlasDto.AtlasAnimation(
+                    info.getName(),
+                    info.getAnimationId(),
+                    info.getType(),
+                    info.getWidth() / info.getFrames(),
+                    info.getHeight(),
+                    info.getFrameRate(),
+                    info.getScale(),
+                    info.getHitboxX(),
+                    info.getHitboxY(),
+                    info.getHitboxWidth(),
+                    info.getHitboxHeight(),
+                    frames
+            ));
+        }
+
+        List<String> pageUrls = layout.pages().stream()
+                .map(hash -> ATLAS_FOLDER + "/" + atlasId + "/" + hash + ".png")
+                .toList();
+        return new AtlasDto(atlasId, pageUrls, atlasAnimations);
+    }
+
+    private Path pagePath(String atlasId, String hash) {
+        return atlasRoot.resolve(atlasId).resolve(hash + ".png");
+    }
+
+    private Object lock(String atlasId) {
+        return locks[Math.floorMod(atlasId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private String atlasId(List<String> sortedNames) {
+        byte[] key = String.join("\n", sortedNames).getBytes(StandardCharsets.UTF_8);
+        return SpriteBlobStore.sha256(key).substring(0, 16);
+    }
+
+    private static long area(List<Placement> placements) {
+        return placements.stream().mapToLong(placement -> (long) placement.width() * placement.height()).sum();
+    }
+
+    record FrameKey(String blobHash, int frame) {
+    }
+
+    record FrameSize(int width, int height) {
+    }
+
+    record Placement(FrameKey key, int page, int x, int y, int width, int height) {
+        MaxRectsPacker.Rect rect() {
+            return new MaxRectsPacker.Rect(x, y, width, height);
+        }
+    }
+
+    record AtlasLayout(int pageSize, List<String> pages, List<Placement> placements) {
+        boolean matches(Map<FrameKey, FrameSize> required, int expectedPageSize) {
+            if (pageSize != expectedPageSize || placements.size() != required.size()) {
+                return false;
+            }
+            for (Placement placement : placements) {
+                FrameSize size = required.get(placement.key());
+                if (size == null || size.width() != placement.width() || size.height() != placement.height()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import perso.arcade.model.entities.Animation;
+import perso.arcade.repository.AnimationRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Au démarrage, déplace les planches encore rangées en {@code {sprite}/{TYPE}/{n}.png} vers le stockage par
+ * contenu, puis supprime les dossiers entièrement migrés. Les versions réduites manquantes sont ensuite générées en
+ * tâche de fond.
+ */
+@Component
+public class SpriteBlobMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteBlobMigration.class);
+
+    private final Path storageRoot;
+    private final AnimationRepository animationRepository;
+    private final SpriteBlobStore spriteBlobStore;
+    private final SpriteDeliveryService spriteDeliveryService;
+    private final SpriteVariantService spriteVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService analysisExecutor;
+
+    public SpriteBlobMigration(AnimationRepository animationRepository,
+                               SpriteBlobStore spriteBlobStore,
+                               SpriteDeliveryService spriteDeliveryService,
+                               SpriteVariantService spriteVariantService,
+                               TransactionTemplate transactionTemplate,
+                               @Qualifier("spriteAnalysisExecutor") ExecutorService analysisExecutor,
+                               @Value("${sprite.storage.root}") String storageRoot) {
+        this.animationRepository = animationRepository;
+        this.spriteBlobStore = spriteBlobStore;
+        this.spriteDeliveryService = spriteDeliveryService;
+        this.spriteVariantService = spriteVariantService;
+        this.transactionTemplate = transactionTemplate;
+        this.analysisExecutor = analysisExecutor;
+        this.storageRoot = Paths.get(storageRoot).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrateLegacySheets();
+        generateMissingVariants();
+    }
+
+    private void migrateLegacySheets() {
+        List<Animation> legacy = animationRepository.findByBlobHashIsNull();
+        if (legacy.isEmpty()) {
+            return;
+        }
+
+        log.info("Migration de {} planches vers le stockage par contenu", legacy.size());
+        Map<String, Boolean> migratedBySprite = new HashMap<>();
+
+        for (Animation animation : legacy) {
+            String spriteName = animation.getSprite().getName();
+            boolean migrated = migrate(animation, spriteName);
+            migratedBySprite.merge(spriteName, migrated, Boolean::logicalAnd);
+        }
+
+        migratedBySprite.forEach((spriteName, migrated) -> {
+            if (migrated && !spriteName.equals(SpriteBlobStore.BLOB_FOLDER)
+                    && !spriteName.equals(SpriteAtlasService.ATLAS_FOLDER)) {
+                deleteLegacyFolder(spriteName);
+            }
+        });
+    }
+
+    private void generateMissingVariants() {
+        Map<String, Integer> framesByHash = new HashMap<>();
+        for (Animation animation : animationRepository.findByBlobHashIsNotNull()) {
+            if (spriteVariantService.isMissing(animation.getBlobHash())) {
+                framesByHash.putIfAbsent(animation.getBlobHash(), animation.getFrames());
+            }
+        }
+        if (framesByHash.isEmpty()) {
+            return;
+        }
+
+        log.info("Génération des versions réduites de {} planches", framesByHash.size());
+        framesByHash.forEach((hash, frames) -> CompletableFuture.runAsync(() -> {
+            try {
+                BufferedImage image = ImageIO.read(spriteBlobStore.path(hash).toFile());
+                if (image != null) {
+                    spriteVariantService.generate(hash, image, frames, hash);
+                }
+            } catch (IOException e) {
+                log.warn("Versions réduites non générées pour {}: {}", hash, e.getMessage());
+            }
+        }, analysisExecutor));
+    }
+
+    private boolean migrate(Animation animation, String spriteName) {
+        Path legacyPath = storageRoot
+                .resolve(spriteName)
+                .resolve(animation.getType().name())
+                .resolve(animation.getIndice() + ".png");
+
+        try {
+            byte[] data = Files.readAllBytes(legacyPath);
+            String hash = spriteBlobStore.put(data);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Animation managed = animationRepository.findById(animation.getId()).orElseThrow();
+                spriteBlobStore.acquire(hash, data.length);
+                managed.setBlobHash(hash);
+                animationRepository.save(managed);
+            });
+
+            spriteBlobStore.ensure(hash, data);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Migration impossible pour {}: {}", legacyPath, e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteLegacyFolder(String spriteName) {
+        Path folder = storageRoot.resolve(spriteName);
+        try {
+            FileSystemUtils.deleteRecursively(folder);
+            spriteDeliveryService.invalidateTree(folder);
+        } catch (IOException e) {
+            log.warn("Dossier {} non supprimé: {}", folder, e.getMessage());
+        }
+    }
+}
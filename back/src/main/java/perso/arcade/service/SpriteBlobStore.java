@@ -0,0 +1,198 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import perso.arcade.model.enumeration.SpriteVariant;
+import perso.arcade.repository.SpriteBlobRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Stockage adressé par contenu : chaque PNG est écrit une seule fois sous {@code blobs/ab/<sha256>.png} et compté
+ * par les animations qui le référencent. Un fichier n'est supprimé qu'après un délai de grâce sans référence.
+ * <p>
+ * Les écritures ont lieu avant la transaction qui pose la référence, puis sont revérifiées après le commit
+ * ({@link #ensure}) : un passage du ramasse-miettes entre les deux ne peut donc pas perdre de fichier.
+ */
+@Service
+public class SpriteBlobStore {
+
+    public static final String BLOB_FOLDER = "blobs";
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteBlobStore.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path blobRoot;
+    private final SpriteBlobRepository spriteBlobRepository;
+    private final SpriteDeliveryService spriteDeliveryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public SpriteBlobStore(SpriteBlobRepository spriteBlobRepository,
+                           SpriteDeliveryService spriteDeliveryService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${sprite.storage.root}") String storageRoot,
+                           @Value("${sprite.blob.gc-grace-minutes:30}") long graceMinutes) {
+        this.spriteBlobRepository = spriteBlobRepository;
+        this.spriteDeliveryService = spriteDeliveryService;
+        this.transactionTemplate = transactionTemplate;
+        this.blobRoot = Paths.get(storageRoot).toAbsolutePath().normalize().resolve(BLOB_FOLDER);
+        this.gracePeriod = Duration.ofMinutes(graceMinutes);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Empreinte contenue dans une URL construite par {@link #url(String)}.
+     */
+    public static String hashOf(String url) {
+        String fileName = url.substring(url.lastIndexOf('/') + 1);
+        return fileName.substring(0, fileName.length() - ".png".length());
+    }
+
+    /**
+     * URL relative au stockage, identique à celle construite par {@code SpriteRepositoryImpl}.
+     */
+    public static String url(String hash) {
+        return BLOB_FOLDER + "/" + hash.substring(0, 2) + "/" + hash + ".png";
+    }
+
+    /**
+     * Nom du fichier d'une version réduite, rangée à côté de l'original.
+     */
+    public static String variantFileName(String hash, SpriteVariant variant) {
+        return hash + "@" + variant.name().toLowerCase() + ".png";
+    }
+
+    public Path path(String hash) {
+        return blobRoot.resolve(hash.substring(0, 2)).resolve(hash + ".png");
+    }
+
+    public Path variantPath(String hash, SpriteVariant variant) {
+        return path(hash).resolveSibling(variantFileName(hash, variant));
+    }
+
+    /**
+     * Écrit le contenu s'il n'existe pas encore et retourne son empreinte. Aucune référence n'est posée.
+     */
+    public String put(byte[] data) {
+        String hash = sha256(data);
+        ensure(hash, data);
+        return hash;
+    }
+
+    public void ensure(String hash, byte[] data) {
+        synchronized (lock(hash)) {
+            write(path(hash), hash, data);
+        }
+    }
+
+    /**
+     * Écrit une version réduite du blob. Elle suit le cycle de vie de l'original.
+     */
+    public void putVariant(String hash, SpriteVariant variant, byte[] data) {
+        synchronized (lock(hash)) {
+            Path target = variantPath(hash, variant);
+            write(target, hash, data);
+            spriteDeliveryService.invalidate(target);
+        }
+    }
+
+    /**
+     * À appeler dans la transaction qui enregistre l'animation.
+     */
+    public void acquire(String hash, long size) {
+        spriteBlobRepository.acquire(hash, size);
+    }
+
+    /**
+     * À appeler dans la transaction qui retire ou remplace la référence.
+     */
+    public void release(String hash) {
+        if (hash != null) {
+            spriteBlobRepository.release(hash, Instant.now());
+        }
+    }
+
+    /**
+     * Supprime le fichier s'il n'a aucune ligne en base, par exemple après l'échec de la transaction d'import.
+     */
+    public void discardIfUnreferenced(String hash) {
+        synchronized (lock(hash)) {
+            if (spriteBlobRepository.existsById(hash)) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path(hash));
+                spriteDeliveryService.invalidate(path(hash));
+                for (SpriteVariant variant : SpriteVariant.values()) {
+                    Files.deleteIfExists(variantPath(hash, variant));
+                    spriteDeliveryService.invalidate(variantPath(hash, variant));
+                }
+            } catch (IOException e) {
+                log.warn("Suppression du blob {} impossible: {}", hash, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${sprite.blob.gc-interval-ms:600000}",
+            fixedDelayString = "${sprite.blob.gc-interval-ms:600000}"
+    )
+    public void collectGarbage() {
+        List<String> candidates = spriteBlobRepository.findCollectable(Instant.now().minus(gracePeriod));
+        int deleted = 0;
+
+        for (String hash : candidates) {
+            Integer removed = transactionTemplate.execute(status -> spriteBlobRepository.deleteIfUnreferenced(hash));
+            if (removed != null && removed > 0) {
+                discardIfUnreferenced(hash);
+                deleted++;
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("{} blobs sans référence supprimés", deleted);
+        }
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(Path target, String hash, byte[] data) {
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur écriture blob " + hash, e);
+        }
+    }
+
+    private Object lock(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+}
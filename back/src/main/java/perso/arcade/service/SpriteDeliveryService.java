@@ -0,0 +1,300 @@
+package perso.arcade.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+import perso.arcade.model.enumeration.SpriteVariant;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service dédié à la diffusion des planches : métadonnées en cache, ETag fort (empreinte du blob, sinon taille et
+ * date de modification), GET conditionnel, Range et envoi sans copie (sendfile de Tomcat, sinon
+ * {@link FileChannel#transferTo}).
+ */
+@Service
+public class SpriteDeliveryService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteDeliveryService.class);
+    private static final String URL_PREFIX = "/sprite-storage/";
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+    private static final String REVALIDATE = "private, no-cache";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Path storageRoot;
+    private final Path blobRoot;
+    private final Path atlasRoot;
+    private final long metadataTtlMillis;
+    private final int maxEntries;
+    private final Map<Path, FileMetadata> metadata = new ConcurrentHashMap<>();
+
+    public SpriteDeliveryService(@Value("${sprite.storage.root}") String storageRoot,
+                                 @Value("${sprite.delivery.metadata-ttl-seconds:60}") long metadataTtlSeconds,
+                                 @Value("${sprite.delivery.metadata-max-entries:10000}") int maxEntries) {
+        this.storageRoot = Paths.get(storageRoot).toAbsolutePath().normalize();
+        this.blobRoot = this.storageRoot.resolve(SpriteBlobStore.BLOB_FOLDER);
+        this.atlasRoot = this.storageRoot.resolve(SpriteAtlasService.ATLAS_FOLDER);
+        this.metadataTtlMillis = metadataTtlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Sert le fichier désigné par la fin de l'URI. Les blobs et pages d'atlas, adressés par contenu, et les URL
+     * portant un paramètre {@code v} peuvent être mis en cache indéfiniment. Le paramètre {@code variant}
+     * ({@code half}, {@code quarter}, {@code thumb}) sélectionne une version réduite d'un blob ; l'original est servi
+     * si elle n'existe pas.
+     */
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path filePath = resolve(request.getRequestURI());
+        String variant = request.getParameter("variant");
+        if (filePath != null && variant != null) {
+            SpriteVariant parsed = parseVariant(variant);
+            if (parsed == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            filePath = variantOf(filePath, parsed);
+        }
+        FileMetadata meta = filePath != null ? metadata(filePath) : null;
+
+        if (meta == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, meta.etag());
+        boolean immutable = isContentAddressed(filePath) || request.getParameter("v") != null;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), meta.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = meta.size() - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+        if (range != null && (ifRange == null || ifRange.equals(meta.etag()))) {
+            long[] bounds = parseRange(range, meta.size());
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + meta.size());
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + meta.size());
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(meta.contentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filePath.getFileName() + "\"");
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, filePath.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent == 0) {
+                    // Fichier raccourci depuis la lecture des métadonnées : la réponse annoncée ne peut plus être servie
+                    invalidate(filePath);
+                    throw new EOFException("Planche tronquée pendant l'envoi: " + filePath.getFileName());
+                }
+                position += sent;
+            }
+        } catch (NoSuchFileException e) {
+            invalidate(filePath);
+            throw e;
+        }
+    }
+
+    /**
+     * À appeler après toute écriture d'une planche.
+     */
+    public void invalidate(Path filePath) {
+        metadata.remove(filePath.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Oublie toutes les planches d'un dossier.
+     */
+    public void invalidateTree(Path directory) {
+        Path root = directory.toAbsolutePath().normalize();
+        metadata.keySet().removeIf(path -> path.startsWith(root));
+    }
+
+    private Path resolve(String requestUri) {
+        int index = requestUri.indexOf(URL_PREFIX);
+        if (index < 0) {
+            return null;
+        }
+
+        String relative = UriUtils.decode(requestUri.substring(index + URL_PREFIX.length()), StandardCharsets.UTF_8);
+        Path filePath = storageRoot.resolve(relative).normalize();
+        return filePath.startsWith(storageRoot) ? filePath : null;
+    }
+
+    private SpriteVariant parseVariant(String value) {
+        for (SpriteVariant variant : SpriteVariant.values()) {
+            if (variant.name().equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    private Path variantOf(Path filePath, SpriteVariant variant) throws IOException {
+        if (!filePath.startsWith(blobRoot)) {
+            return filePath;
+        }
+        String hash = stripExtension(filePath.getFileName().toString());
+        Path candidate = filePath.resolveSibling(SpriteBlobStore.variantFileName(hash, variant));
+        return metadata(candidate) != null ? candidate : filePath;
+    }
+
+    private FileMetadata metadata(Path filePath) throws IOException {
+        long now = System.currentTimeMillis();
+        FileMetadata cached = metadata.get(filePath);
+        if (cached != null && now - cached.checkedAt() < metadataTtlMillis) {
+            return cached;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            metadata.remove(filePath);
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        String contentType = cached != null ? cached.contentType() : contentType(filePath);
+        String etag = isContentAddressed(filePath)
+                ? "\"" + stripExtension(filePath.getFileName().toString()) + "\""
+                : "\"" + Long.toHexString(size) + "-" + Long.toHexString(modified) + "\"";
+
+        if (metadata.size() >= maxEntries) {
+            log.debug("Cache des métadonnées plein ({} entrées): vidé", metadata.size());
+            metadata.clear();
+        }
+
+        FileMetadata meta = new FileMetadata(size, etag, contentType, now);
+        metadata.put(filePath, meta);
+        return meta;
+    }
+
+    private boolean isContentAddressed(Path filePath) {
+        return filePath.startsWith(blobRoot)
+                || (filePath.startsWith(atlasRoot) && filePath.getFileName().toString().endsWith(".png"));
+    }
+
+    private String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private String contentType(Path filePath) throws IOException {
+        if (filePath.getFileName().toString().toLowerCase().endsWith(".png")) {
+            return "image/png";
+        }
+        String type = Files.probeContentType(filePath);
+        return type != null ? type : "application/octet-stream";
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gère une seule plage {@code bytes=a-b}, {@code a-} ou {@code -n}. Retourne un tableau vide pour ignorer l'en-tête
+     * (syntaxe inconnue ou plages multiples, le fichier est alors servi en entier) et {@code null} si la plage est
+     * hors du fichier.
+     */
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private record FileMetadata(long size, String etag, String contentType, long checkedAt) {
+    }
+}
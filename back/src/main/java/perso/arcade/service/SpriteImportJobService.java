@@ -0,0 +1,141 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import perso.arcade.exception.ImportJobNotFoundException;
+import perso.arcade.exception.ImportQueueFullException;
+import perso.arcade.exception.SpriteArchiveTooLargeException;
+import perso.arcade.exception.SpriteNameAlreadyExist;
+import perso.arcade.model.dto.SpriteImportJobDto;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.model.enumeration.ImportStage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class SpriteImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteImportJobService.class);
+    private static final String TOPIC_PREFIX = "/topic/sprite-import/";
+    private static final Duration RETENTION = Duration.ofMinutes(10);
+
+    private final SpriteImportService spriteImportService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ExecutorService importExecutor;
+    private final Map<String, TrackedJob> jobs = new ConcurrentHashMap<>();
+
+    public SpriteImportJobService(SpriteImportService spriteImportService,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  @Qualifier("spriteImportExecutor") ExecutorService importExecutor) {
+        this.spriteImportService = spriteImportService;
+        this.messagingTemplate = messagingTemplate;
+        this.importExecutor = importExecutor;
+    }
+
+    public SpriteImportJobDto submit(MultipartFile zipFile) {
+        if (zipFile == null || zipFile.isEmpty()) {
+            throw new IllegalArgumentException("ZIP vide");
+        }
+        purgeFinishedJobs();
+
+        String jobId = UUID.randomUUID().toString();
+        Path upload = receive(zipFile);
+        SpriteImportJobDto queued = publish(jobId, ImportStage.QUEUED, 0, 0, null, null, null);
+
+        try {
+            importExecutor.execute(() -> run(jobId, upload));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            deleteQuietly(upload);
+            throw new ImportQueueFullException("Trop d'imports en cours, réessayez plus tard");
+        }
+
+        log.info("Import {} en file d'attente: {}", jobId, zipFile.getOriginalFilename());
+        return queued;
+    }
+
+    public SpriteImportJobDto getJob(String jobId) {
+        TrackedJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException("Import introuvable: " + jobId);
+        }
+        return job.status();
+    }
+
+    private Path receive(MultipartFile zipFile) {
+        try {
+            Path upload = Files.createTempFile("sprite_import_", ".zip");
+            zipFile.transferTo(upload);
+            return upload;
+        } catch (IOException e) {
+            throw new RuntimeException("Erreur réception ZIP: " + e.getMessage(), e);
+        }
+    }
+
+    private void run(String jobId, Path upload) {
+        try {
+            SpriteInfos sprite = spriteImportService.importSprite(upload,
+                    (stage, processed, total) -> publish(jobId, stage, processed, total, null, null, null));
+            int total = getJob(jobId).getTotal();
+            publish(jobId, ImportStage.PERSISTED, total, total, sprite, null, null);
+        } catch (Exception e) {
+            SpriteImportJobDto last = getJob(jobId);
+            publish(jobId, ImportStage.FAILED, last.getProcessed(), last.getTotal(), null, e.getMessage(), errorCode(e));
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    private SpriteImportJobDto publish(String jobId, ImportStage stage, int processed, int total,
+                                       SpriteInfos sprite, String error, String errorCode) {
+        SpriteImportJobDto status = new SpriteImportJobDto(jobId, stage, processed, total, sprite, error, errorCode);
+        jobs.put(jobId, new TrackedJob(status, Instant.now()));
+        messagingTemplate.convertAndSend(TOPIC_PREFIX + jobId, status);
+        return status;
+    }
+
+    /**
+     * L'import étant asynchrone, les refus n'atteignent jamais le {@code GlobalExceptionHandler} : leur code voyage
+     * dans le statut du job.
+     */
+    private String errorCode(Exception e) {
+        if (e instanceof SpriteArchiveTooLargeException) {
+            return "SPRITE_ARCHIVE_TOO_LARGE";
+        }
+        if (e instanceof SpriteNameAlreadyExist) {
+            return "SPRITE_NAME_ALREADY_EXIST";
+        }
+        return "SPRITE_IMPORT_FAILED";
+    }
+
+    private void purgeFinishedJobs() {
+        Instant limit = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.updatedAt().isBefore(limit));
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private record TrackedJob(SpriteImportJobDto status, Instant updatedAt) {
+        boolean isFinished() {
+            return status.getStage() == ImportStage.PERSISTED || status.getStage() == ImportStage.FAILED;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import perso.arcade.exception.SpriteArchiveTooLargeException;
+import perso.arcade.exception.SpriteNameAlreadyExist;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.model.entities.Animation;
+import perso.arcade.model.entities.Sprite;
+import perso.arcade.model.enumeration.AnimationType;
+import perso.arcade.model.enumeration.ImportStage;
+import perso.arcade.repository.SpriteRepository;
+import perso.arcade.service.image.FrameAnalyzer;
+import perso.arcade.service.image.SpritePngWriter;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Service
+public class SpriteImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteImportService.class);
+    private static final String SEPARATOR = "═══════════════════════════════════════════════════════════";
+    private static final List<AnimationType> ANIMATION_TYPES = List.of(
+            AnimationType.IDLE,
+            AnimationType.WALK,
+            AnimationType.ATTACK
+    );
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int PNG_HEADER_LENGTH = 24;
+
+    private final SpriteRepository spriteRepository;
+    private final ExecutorService analysisExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final SpriteBlobStore spriteBlobStore;
+    private final SpriteInfosCache spriteInfosCache;
+    private final SpriteVariantService spriteVariantService;
+    private final SpritePngWriter spritePngWriter;
+    private final int maxEntries;
+    private final long maxTotalBytes;
+    private final long maxEntryBytes;
+    private final long maxPixels;
+    private final Set<String> importsInProgress = ConcurrentHashMap.newKeySet();
+
+    public SpriteImportService(SpriteRepository spriteRepository,
+                               @Qualifier("spriteAnalysisExecutor") ExecutorService analysisExecutor,
+                               TransactionTemplate transactionTemplate,
+                               SpriteBlobStore spriteBlobStore,
+                               SpriteInfosCache spriteInfosCache,
+                               SpriteVariantService spriteVariantService,
+                               SpritePngWriter spritePngWriter,
+                               @Value("${sprite.import.max-entries:2000}") int maxEntries,
+                               @Value("${sprite.import.max-total-bytes:134217728}") long maxTotalBytes,
+                               @Value("${sprite.import.max-entry-bytes:16777216}") long maxEntryBytes,
+                               @Value("${sprite.import.max-pixels:16777216}") long maxPixels) {
+        this.spriteRepository = spriteRepository;
+        this.analysisExecutor = analysisExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.spriteBlobStore = spriteBlobStore;
+        this.spriteInfosCache = spriteInfosCache;
+        this.spriteVariantService = spriteVariantService;
+        this.spritePngWriter = spritePngWriter;
+        this.maxEntries = maxEntries;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Importe le ZIP déjà reçu sur disque. Seule l'écriture finale en base est transactionnelle.
+     */
+    public SpriteInfos importSprite(Path zipPath, ProgressListener listener) {
+        log.info("Début traitement ZIP: {}", zipPath.getFileName());
+
+        try {
+            SpriteArchive archive;
+            try (InputStream in = Files.newInputStream(zipPath)) {
+                archive = readArchive(in);
+            }
+            String spriteName = archive.spriteName();
+            int total = archive.imageCount();
+            log.info("Sprite détecté: '{}'", spriteName);
+            listener.onProgress(ImportStage.UNZIPPED, 0, total);
+
+            reserveSpriteName(spriteName);
+            try {
+                Sprite sprite = new Sprite(spriteName);
+                sprite.setScale(1);
+
+                List<DecodedImage> images = processAnimationsMetaData(archive, sprite, listener, total);
+                persist(sprite, images);
+                spriteInfosCache.invalidateSprite(spriteName);
+                listener.onProgress(ImportStage.STORED, images.size(), total);
+            } finally {
+                importsInProgress.remove(spriteName);
+            }
+
+            log.info("Sprite '{}' importé avec succès", spriteName);
+            log.info(SEPARATOR);
+
+            return spriteRepository.getSpritesInfosByTypeAndName(AnimationType.IDLE, spriteName);
+
+        } catch (SpriteNameAlreadyExist e) {
+            log.warn("Sprite déjà existant: {}", e.getMessage());
+            throw e;
+        } catch (SpriteArchiveTooLargeException e) {
+            log.warn("ZIP refusé: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Erreur ZIP: {}", e.getMessage(), e);
+            throw new RuntimeException("Erreur import sprite: " + e.getMessage(), e);
+        }
+    }
+
+    private void reserveSpriteName(String spriteName) {
+        if (!importsInProgress.add(spriteName)) {
+            throw new SpriteNameAlreadyExist(
+                    "Import déjà en cours pour le sprite: '" + spriteName + "'"
+            );
+        }
+        try {
+            validateSpriteNotExists(spriteName);
+        } catch (RuntimeException e) {
+            importsInProgress.remove(spriteName);
+            throw e;
+        }
+    }
+
+    private void validateSpriteNotExists(String spriteName) {
+        if (spriteRepository.findByName(spriteName).isPresent()) {
+            throw new SpriteNameAlreadyExist(
+                    "Sprite déjà existant: '" + spriteName + "'"
+            );
+        }
+        log.debug("Nom disponible: '{}'", spriteName);
+    }
+
+    /**
+     * Enregistre le sprite et pose une référence par animation dans la même transaction. En cas d'échec, les blobs
+     * que personne d'autre ne référence sont supprimés.
+     */
+    private void persist(Sprite sprite, List<DecodedImage> images) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                spriteRepository.save(sprite);
+                images.forEach(image -> spriteBlobStore.acquire(image.hash(), image.data().length));
+            });
+        } catch (RuntimeException e) {
+            images.forEach(image -> spriteBlobStore.discardIfUnreferenced(image.hash()));
+            throw e;
+        }
+
+        images.forEach(image -> spriteBlobStore.ensure(image.hash(), image.data()));
+    }
+
+    /**
+     * Lit chaque entrée du ZIP une seule fois en mémoire, sans passer par un répertoire temporaire.
+     * Seuls les PNG placés dans {@code <racine>/<TYPE>/} sont conservés.
+     * <p>
+     * Le nombre d'entrées et le volume décompressé (entrées ignorées comprises) sont plafonnés pendant la lecture,
+     * sans se fier aux tailles déclarées dans le ZIP. Les dimensions sont lues dans l'en-tête IHDR avant de garder
+     * l'image : la mémoire d'un import reste bornée par {@code max-total-bytes} plus, pendant l'analyse,
+     * {@code max-pixels} × 4 octets par image décodée en parallèle.
+     */
+    private SpriteArchive readArchive(InputStream in) throws IOException {
+        Set<String> roots = new HashSet<>();
+        Map<AnimationType, List<ArchiveImage>> images = new EnumMap<>(AnimationType.class);
+        int entries = 0;
+        long totalBytes = 0;
+
+        try (ZipInputStream zis = new ZipInputStream(in)) {
+            ZipEntry entry;
+
+            while ((entry = zis.getNextEntry()) != null) {
+                if (++entries > maxEntries) {
+                    throw new SpriteArchiveTooLargeException("ZIP refusé: plus de " + maxEntries + " entrées");
+                }
+                String[] parts = splitEntryName(entry.getName());
+
+                if (parts.length == 0 || parts[0].startsWith("__")) {
+                    totalBytes += skipEntry(zis, maxTotalBytes - totalBytes);
+                    continue;
+                }
+                if (entry.isDirectory() || parts.length > 1) {
+                    roots.add(parts[0]);
+                }
+
+                AnimationType type = parts.length == 3 ? animationType(parts[1]) : null;
+                if (entry.isDirectory() || type == null || !parts[2].toLowerCase().endsWith(".png")) {
+                    totalBytes += skipEntry(zis, maxTotalBytes - totalBytes);
+                    continue;
+                }
+
+                byte[] header = zis.readNBytes(PNG_HEADER_LENGTH);
+                if (!isPng(header)) {
+                    log.warn("Image illisible {}: ignorée", parts[2]);
+                    totalBytes += header.length + skipEntry(zis, maxTotalBytes - totalBytes - header.length);
+                    continue;
+                }
+                checkPixelArea(parts[2], header);
+
+                byte[] data = readEntry(zis, header, parts[2], maxTotalBytes - totalBytes);
+                totalBytes += data.length;
+                images.computeIfAbsent(type, t -> new ArrayList<>())
+                        .add(new ArchiveImage(type, parts[2], data));
+            }
+        }
+
+        if (roots.size() != 1) {
+            throw new RuntimeException("ZIP doit contenir un seul dossier racine");
+        }
+
+        images.values().forEach(list -> list.sort(Comparator.comparing(ArchiveImage::fileName)));
+        return new SpriteArchive(roots.iterator().next(), images);
+    }
+
+    /**
+     * Lit la suite de l'entrée en refusant de dépasser la taille maximale d'une image ou le volume restant.
+     */
+    private byte[] readEntry(ZipInputStream zis, byte[] header, String fileName, long remaining) throws IOException {
+        long limit = Math.min(maxEntryBytes, remaining);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        out.write(header);
+
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = zis.read(buffer)) > 0) {
+            if (out.size() + read > limit) {
+                throw tooLarge(fileName, limit == maxEntryBytes);
+            }
+            out.write(buffer, 0, read);
+        }
+        if (out.size() > limit) {
+            throw tooLarge(fileName, limit == maxEntryBytes);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Décompresse l'entrée sans la garder pour compter son volume réel.
+     */
+    private long skipEntry(ZipInputStream zis, long remaining) throws IOException {
+        // L'en-tête lu avant de refuser une image a pu suffire à dépasser le volume autorisé
+        if (remaining < 0) {
+            throw archiveTooLarge();
+        }
+        long skipped = zis.skip(remaining + 1);
+        if (skipped > remaining) {
+            throw archiveTooLarge();
+        }
+        return skipped;
+    }
+
+    private SpriteArchiveTooLargeException tooLarge(String fileName, boolean entryLimit) {
+        return entryLimit
+                ? new SpriteArchiveTooLargeException("Image " + fileName + " refusée: plus de " + maxEntryBytes + " octets")
+                : archiveTooLarge();
+    }
+
+    private SpriteArchiveTooLargeException archiveTooLarge() {
+        return new SpriteArchiveTooLargeException("ZIP refusé: plus de " + maxTotalBytes + " octets décompressés");
+    }
+
+    private boolean isPng(byte[] header) {
+        return header.length == PNG_HEADER_LENGTH
+                && Arrays.equals(header, 0, PNG_SIGNATURE.length, PNG_SIGNATURE, 0, PNG_SIGNATURE.length)
+                && header[12] == 'I' && header[13] == 'H' && header[14] == 'D' && header[15] == 'R';
+    }
+
+    /**
+     * Largeur et hauteur sont les deux premiers champs du chunk IHDR, juste après la signature.
+     */
+    private void checkPixelArea(String fileName, byte[] header) {
+        long width = readUInt(header, 16);
+        long height = readUInt(header, 20);
+        if (width * height > maxPixels) {
+            throw new SpriteArchiveTooLargeException(
+                    "Image " + fileName + " refusée: " + width + "x" + height + " dépasse " + maxPixels + " pixels"
+            );
+        }
+    }
+
+    private long readUInt(byte[] data, int offset) {
+        return ((data[offset] & 0xffL) << 24) | ((data[offset + 1] & 0xffL) << 16)
+                | ((data[offset + 2] & 0xffL) << 8) | (data[offset + 3] & 0xffL);
+    }
+
+    private String[] splitEntryName(String name) throws IOException {
+        String[] parts = Arrays.stream(name.replace('\\', '/').split("/"))
+                .filter(p -> !p.isEmpty())
+                .toArray(String[]::new);
+
+        for (String part : parts) {
+            if (part.equals("..") || part.equals(".")) {
+                throw new IOException("ZIP invalide: " + name);
+            }
+        }
+
+        return parts;
+    }
+
+    private AnimationType animationType(String folder) {
+        return ANIMATION_TYPES.stream()
+                .filter(type -> type.name().equals(folder))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Décode, analyse et écrit dans le stockage toutes les images en parallèle, puis fusionne les résultats dans l'ordre trié des fichiers
+     * pour que les indices des animations restent stables.
+     */
+    private List<DecodedImage> processAnimationsMetaData(SpriteArchive archive, Sprite sprite,
+                                                         ProgressListener listener, int total) {
+        log.info("Analyse des animations...");
+        List<CompletableFuture<DecodedImage>> tasks = new ArrayList<>();
+
+        for (AnimationType type : ANIMATION_TYPES) {
+            List<ArchiveImage> images = archive.images().getOrDefault(type, List.of());
+
+            for (int i = 0; i < images.size(); i++) {
+                ArchiveImage source = images.get(i);
+                int indice = i + 1;
+                tasks.add(CompletableFuture.supplyAsync(() -> decode(source, indice), analysisExecutor));
+            }
+        }
+
+        List<DecodedImage> decoded = new ArrayList<>();
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                DecodedImage image = tasks.get(i).join();
+                listener.onProgress(ImportStage.ANALYZED, i + 1, total);
+                if (image == null) {
+                    continue;
+                }
+
+                Animation animation = new Animation(
+                        image.frames(),
+                        image.width(),
+                        image.height(),
+                        image.source().type(),
+                        image.indice(),
+                        8
+                );
+                animation.setBlobHash(image.hash());
+                sprite.addAnimation(animation);
+                decoded.add(image);
+            }
+        } catch (RuntimeException e) {
+            discardDecoded(tasks);
+            throw e;
+        }
+
+        log.info("{} animations créées", decoded.size());
+        return decoded;
+    }
+
+    /**
+     * Attend la fin des décodages encore en cours puis supprime les blobs qu'ils ont écrits : aucune ligne en base
+     * ne les référence, le ramasse-miettes ne les verrait jamais.
+     */
+    private void discardDecoded(List<CompletableFuture<DecodedImage>> tasks) {
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+
+        for (CompletableFuture<DecodedImage> task : tasks) {
+            DecodedImage image = task.isCompletedExceptionally() ? null : task.join();
+            if (image != null) {
+                spriteBlobStore.discardIfUnreferenced(image.hash());
+            }
+        }
+    }
+
+    private DecodedImage decode(ArchiveImage source, int indice) {
+        try {
+            BufferedImage img = ImageIO.read(new ByteArrayInputStream(source.data()));
+            if (img == null) {
+                log.warn("Image illisible {}: ignorée", source.fileName());
+                return null;
+            }
+
+            int frames = FrameAnalyzer.detectFrames(img);
+            byte[] data = recompress(img, source.data());
+            String hash = spriteBlobStore.put(data);
+            try {
+                spriteVariantService.generate(hash, img, frames, source.type() + "/" + source.fileName());
+            } catch (RuntimeException e) {
+                spriteBlobStore.discardIfUnreferenced(hash);
+                throw e;
+            }
+
+            return new DecodedImage(source, indice, frames, img.getWidth(), img.getHeight(), hash, data);
+        } catch (IOException e) {
+            log.error(
+                    "Erreur création animation {}.{}: {}",
+                    source.type(),
+                    indice,
+                    e.getMessage()
+            );
+            return null;
+        }
+    }
+
+    /**
+     * Réencode la planche sans perte et garde le plus petit des deux fichiers. Les images à plus de 8 bits par
+     * composante sont conservées telles quelles pour ne rien perdre.
+     */
+    private byte[] recompress(BufferedImage img, byte[] original) throws IOException {
+        for (int size : img.getColorModel().getComponentSize()) {
+            if (size > 8) {
+                return original;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(original.length);
+        spritePngWriter.writeLossless(img, out);
+        return out.size() < original.length ? out.toByteArray() : original;
+    }
+
+    private record ArchiveImage(AnimationType type, String fileName, byte[] data) {
+    }
+
+    private record SpriteArchive(String spriteName, Map<AnimationType, List<ArchiveImage>> images) {
+        int imageCount() {
+            return images.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    private record DecodedImage(ArchiveImage source, int indice, int frames, int width, int height, String hash,
+                                byte[] data) {
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportStage stage, int processed, int total);
+    }
+}
@@ -0,0 +1,100 @@
+package perso.arcade.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import perso.arcade.model.dto.CacheStatsDto;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.model.enumeration.AnimationType;
+import perso.arcade.repository.SpriteRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache en lecture seule devant les requêtes {@link SpriteInfos} de {@link SpriteRepository}. Chaque mutation doit
+ * appeler {@link #invalidateSprite(String)} ; l'invalidation est rejouée après le commit de la transaction en cours
+ * pour ne pas laisser un lecteur concurrent remettre l'ancienne valeur en cache. Les bundles de jeu sont tenus à
+ * jour par {@link SpritePlayStore}.
+ */
+@Component
+public class SpriteInfosCache {
+
+    private final LoadingCache<AnimationType, List<SpriteInfos>> spritesByType;
+    private final LoadingCache<String, List<SpriteInfos>> animationsBySprite;
+    private final SpritePlayStore spritePlayStore;
+
+    public SpriteInfosCache(SpriteRepository spriteRepository,
+                            SpritePlayStore spritePlayStore,
+                            @Value("${sprite.cache.max-size:1000}") long maxSize,
+                            @Value("${sprite.cache.expire-after-write-minutes:30}") long expireMinutes) {
+        this.spritesByType = newCache(maxSize, expireMinutes)
+                .build(type -> List.copyOf(spriteRepository.getAllSpritesInfos(type)));
+        this.animationsBySprite = newCache(maxSize, expireMinutes)
+                .build(name -> List.copyOf(spriteRepository.getAllAnimationsBySpriteName(name)));
+        this.spritePlayStore = spritePlayStore;
+    }
+
+    public List<SpriteInfos> getAllSpritesInfos(AnimationType type) {
+        return spritesByType.get(type);
+    }
+
+    public List<SpriteInfos> getAllAnimationsBySpriteName(String spriteName) {
+        return animationsBySprite.get(spriteName);
+    }
+
+    /**
+     * Le bundle de jeu n'est rematérialisé qu'une fois les données validées.
+     */
+    public void invalidateSprite(String spriteName) {
+        evict(spriteName);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(spriteName);
+                    spritePlayStore.refresh(spriteName);
+                }
+            });
+        } else {
+            spritePlayStore.refresh(spriteName);
+        }
+    }
+
+    public List<CacheStatsDto> getStats() {
+        return List.of(
+                stats("spritesByType", spritesByType),
+                stats("animationsBySprite", animationsBySprite)
+        );
+    }
+
+    private void evict(String spriteName) {
+        animationsBySprite.invalidate(spriteName);
+        spritesByType.invalidateAll();
+    }
+
+    private static Caffeine<Object, Object> newCache(long maxSize, long expireMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats();
+    }
+
+    private static CacheStatsDto stats(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.model.dto.SpritePlay;
+import perso.arcade.model.enumeration.AnimationType;
+import perso.arcade.repository.SpriteRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Modèle de lecture des {@link SpritePlay}, matérialisé au démarrage puis à chaque mutation d'un sprite et servi
+ * depuis la mémoire.
+ */
+@Component
+public class SpritePlayStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SpritePlayStore.class);
+
+    private final SpriteRepository spriteRepository;
+    private final Map<String, Stamped> bundles = new ConcurrentHashMap<>();
+    private final AtomicLong stamps = new AtomicLong();
+
+    public SpritePlayStore(SpriteRepository spriteRepository) {
+        this.spriteRepository = spriteRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<String, List<SpriteInfos>> bySprite = new LinkedHashMap<>();
+        for (SpriteInfos info : spriteRepository.getAllAnimations()) {
+            bySprite.computeIfAbsent(info.getName(), name -> new ArrayList<>()).add(info);
+        }
+
+        bySprite.forEach((name, infos) -> bundles.putIfAbsent(name, new Stamped(materialize(infos), 0)));
+        log.info("{} bundles de jeu matérialisés", bySprite.size());
+    }
+
+    /**
+     * Sprite inconnu : bundle vide, comme l'ancienne recherche.
+     */
+    public SpritePlay get(String spriteName) {
+        Stamped stamped = bundles.get(spriteName);
+        return stamped != null && stamped.play() != null ? stamped.play() : new SpritePlay();
+    }
+
+    /**
+     * Seuls les sprites existants figurent dans le résultat.
+     */
+    public Map<String, SpritePlay> getAll(Collection<String> spriteNames) {
+        Map<String, SpritePlay> result = new LinkedHashMap<>();
+        for (String name : spriteNames) {
+            Stamped stamped = bundles.get(name);
+            if (stamped != null && stamped.play() != null) {
+                result.put(name, stamped.play());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recharge le bundle depuis la base, à appeler une fois la mutation validée. La lecture a lieu hors de tout verrou ;
+     * le tampon pris avant elle empêche une lecture plus ancienne d'écraser une plus récente. Un sprite supprimé garde
+     * une entrée vide pour conserver son tampon.
+     */
+    public void refresh(String spriteName) {
+        long stamp = stamps.incrementAndGet();
+        List<SpriteInfos> infos = spriteRepository.getAllAnimationsBySpriteName(spriteName);
+        Stamped loaded = new Stamped(infos.isEmpty() ? null : materialize(infos), stamp);
+        bundles.merge(spriteName, loaded, (current, fresh) -> fresh.stamp() > current.stamp() ? fresh : current);
+    }
+
+    private SpritePlay materialize(List<SpriteInfos> infos) {
+        Map<AnimationType, SpriteInfos> byType = new EnumMap<>(AnimationType.class);
+        for (SpriteInfos info : infos) {
+            byType.putIfAbsent(info.getType(), info);
+        }
+
+        return new SpritePlay(
+                byType.get(AnimationType.IDLE),
+                byType.get(AnimationType.WALK),
+                byType.get(AnimationType.ATTACK)
+        );
+    }
+
+    /**
+     * Bundle et tampon du rafraîchissement qui l'a produit ; {@code play} est nul pour un sprite supprimé.
+     */
+    private record Stamped(SpritePlay play, long stamp) {
+    }
+}
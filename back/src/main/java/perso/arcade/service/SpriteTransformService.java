@@ -0,0 +1,255 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import perso.arcade.exception.SpriteTransformConflictException;
+import perso.arcade.exception.SpriteTransformFailedException;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.model.dto.SpriteTransformDto;
+import perso.arcade.model.entities.Animation;
+import perso.arcade.model.enumeration.SpriteOperation;
+import perso.arcade.repository.AnimationRepository;
+import perso.arcade.repository.SpriteRepository;
+import perso.arcade.service.image.Bounds;
+import perso.arcade.service.image.FrameAnalyzer;
+import perso.arcade.service.image.PixelSheet;
+import perso.arcade.service.image.SpritePngWriter;
+import perso.arcade.service.image.SpriteSheetTransformer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+@Service
+public class SpriteTransformService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteTransformService.class);
+
+    private final Path storageRoot;
+    private final SpriteRepository spriteRepository;
+    private final AnimationRepository animationRepository;
+    private final SpritePngWriter spritePngWriter;
+    private final SpriteSheetTransformer spriteSheetTransformer;
+    private final SpriteBlobStore spriteBlobStore;
+    private final SpriteInfosCache spriteInfosCache;
+    private final SpriteVariantService spriteVariantService;
+    private final ExecutorService analysisExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public SpriteTransformService(SpriteRepository spriteRepository,
+                                  AnimationRepository animationRepository,
+                                  SpritePngWriter spritePngWriter,
+                                  SpriteSheetTransformer spriteSheetTransformer,
+                                  SpriteBlobStore spriteBlobStore,
+                                  SpriteInfosCache spriteInfosCache,
+                                  SpriteVariantService spriteVariantService,
+                                  @Qualifier("spriteAnalysisExecutor") ExecutorService analysisExecutor,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${sprite.storage.root}") String storageRoot) {
+        this.spriteRepository = spriteRepository;
+        this.animationRepository = animationRepository;
+        this.spritePngWriter = spritePngWriter;
+        this.spriteSheetTransformer = spriteSheetTransformer;
+        this.spriteBlobStore = spriteBlobStore;
+        this.spriteInfosCache = spriteInfosCache;
+        this.spriteVariantService = spriteVariantService;
+        this.analysisExecutor = analysisExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.storageRoot = Paths.get(storageRoot).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Applique les opérations à toutes les animations ciblées : une requête pour les métadonnées, les fichiers
+     * traités en parallèle, puis une seule transaction pour les nouveaux blobs et dimensions. Tout ou rien : si une
+     * planche échoue, aucune n'est modifiée.
+     */
+    public List<SpriteInfos> transform(SpriteTransformDto dto) {
+        List<SpriteOperation> operations = dto.getOperations() != null ? dto.getOperations() : List.of();
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("Aucune opération demandée");
+        }
+
+        List<SpriteInfos> infos = findTargets(dto);
+        log.info("Transformation {} sur {} animations", operations, infos.size());
+
+        List<CompletableFuture<SheetResult>> tasks = infos.stream()
+                .map(info -> CompletableFuture.supplyAsync(() -> apply(info, operations), analysisExecutor))
+                .toList();
+
+        Map<Long, SheetResult> results = new HashMap<>();
+        List<Long> failed = new ArrayList<>();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Long animationId = infos.get(i).getAnimationId();
+            try {
+                results.put(animationId, tasks.get(i).join());
+            } catch (CompletionException e) {
+                log.error("Erreur transformation animation {}: {}", animationId, e.getCause().getMessage());
+                failed.add(animationId);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            discard(results);
+            throw new SpriteTransformFailedException("Transformation échouée pour les animations " + failed
+                    + ", aucune planche modifiée");
+        }
+
+        Map<Long, String> readHashes = new HashMap<>();
+        infos.forEach(info -> readHashes.put(info.getAnimationId(), SpriteBlobStore.hashOf(info.getImageUrl())));
+        saveResults(results, readHashes);
+        infos.stream().map(SpriteInfos::getName).distinct().forEach(spriteInfosCache::invalidateSprite);
+
+        for (SpriteInfos info : infos) {
+            SheetResult result = results.get(info.getAnimationId());
+            info.setWidth(result.width());
+            info.setHeight(result.height());
+            info.setImageUrl(SpriteBlobStore.url(result.hash()));
+        }
+
+        return infos;
+    }
+
+    /**
+     * Lit la planche une fois, enchaîne les opérations en mémoire et écrit le résultat comme nouveau blob, avec ses
+     * versions réduites.
+     */
+    private SheetResult apply(SpriteInfos info, List<SpriteOperation> operations) {
+        Path filePath = storageRoot.resolve(info.getImageUrl());
+
+        try {
+            BufferedImage original = ImageIO.read(filePath.toFile());
+            if (original == null) {
+                throw new IOException("Impossible de lire l'image " + info.getImageUrl());
+            }
+
+            PixelSheet sheet = spriteSheetTransformer.load(original);
+            boolean normalized = false;
+
+            try {
+                for (SpriteOperation operation : operations) {
+                    switch (operation) {
+                        case FLIP -> spriteSheetTransformer.flipFrames(sheet, info.getFrames());
+                        case NORMALIZE -> {
+                            PixelSheet cropped = rebuildFinalSprite(sheet, info.getFrames());
+                            if (cropped != null) {
+                                sheet.close();
+                                sheet = cropped;
+                            }
+                            normalized = true;
+                        }
+                    }
+                }
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                if (normalized) {
+                    spritePngWriter.writeQuantized(sheet, info.getName() + "/" + info.getType(), out);
+                } else {
+                    spritePngWriter.writeLossless(sheet, out);
+                }
+
+                byte[] data = out.toByteArray();
+                String hash = spriteBlobStore.put(data);
+                spriteVariantService.generate(hash, sheet, info.getFrames(), info.getName() + "/" + info.getType());
+                return new SheetResult(sheet.width(), sheet.height(), hash, data);
+            } finally {
+                sheet.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<SpriteInfos> findTargets(SpriteTransformDto dto) {
+        List<SpriteInfos> infos;
+
+        if (dto.getSpriteName() != null && !dto.getSpriteName().isBlank()) {
+            infos = spriteRepository.getAllAnimationsBySpriteName(dto.getSpriteName());
+        } else if (dto.getAnimationIds() != null && !dto.getAnimationIds().isEmpty()) {
+            infos = spriteRepository.getSpriteInfosByAnimationIds(new HashSet<>(dto.getAnimationIds()));
+        } else {
+            throw new IllegalArgumentException("Nom de sprite ou liste d'animations requis");
+        }
+
+        if (infos.isEmpty()) {
+            throw new IllegalArgumentException("Aucune animation trouvée");
+        }
+        return infos;
+    }
+
+    /**
+     * Remplace les blobs des animations et leurs dimensions dans une seule transaction. Les lignes sont verrouillées
+     * puis comparées au blob lu par les tâches : une animation modifiée ou supprimée entre-temps annule tout le lot,
+     * sinon deux transformations concurrentes libéreraient deux fois l'ancien blob. La nouvelle référence est posée
+     * avant de libérer l'ancienne pour qu'un contenu inchangé ne passe jamais à zéro.
+     */
+    private void saveResults(Map<Long, SheetResult> results, Map<Long, String> readHashes) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Animation> animations = animationRepository.findAllByIdForUpdate(results.keySet());
+                Set<Long> stale = new TreeSet<>(results.keySet());
+                for (Animation animation : animations) {
+                    if (Objects.equals(animation.getBlobHash(), readHashes.get(animation.getId()))) {
+                        stale.remove(animation.getId());
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    throw new SpriteTransformConflictException("Animations modifiées pendant la transformation: "
+                            + stale + ", réessayez");
+                }
+
+                for (Animation animation : animations) {
+                    SheetResult result = results.get(animation.getId());
+                    spriteBlobStore.acquire(result.hash(), result.data().length);
+                    spriteBlobStore.release(animation.getBlobHash());
+                    animation.setBlobHash(result.hash());
+                    animation.setWidth(result.width());
+                    animation.setHeight(result.height());
+                }
+                animationRepository.saveAll(animations);
+            });
+        } catch (RuntimeException e) {
+            discard(results);
+            throw e;
+        }
+
+        results.values().forEach(result -> spriteBlobStore.ensure(result.hash(), result.data()));
+    }
+
+    /**
+     * Les blobs déjà référencés ailleurs (contenu inchangé, planche partagée) sont conservés.
+     */
+    private void discard(Map<Long, SheetResult> results) {
+        results.values().forEach(result -> spriteBlobStore.discardIfUnreferenced(result.hash()));
+    }
+
+    /**
+     * Retourne {@code null} si la planche est entièrement transparente.
+     */
+    private PixelSheet rebuildFinalSprite(PixelSheet sheet, int frameCount) {
+        int frameWidth = sheet.width() / frameCount;
+        Bounds bounds = FrameAnalyzer.analyze(sheet.toImage(), frameCount * frameWidth)
+                .globalBounds(frameCount, frameWidth);
+
+        if (bounds == null) {
+            return null;
+        }
+
+        return spriteSheetTransformer.crop(sheet, frameCount, bounds);
+    }
+
+    private record SheetResult(int width, int height, String hash, byte[] data) {
+    }
+}
@@ -0,0 +1,98 @@
+package perso.arcade.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import perso.arcade.model.enumeration.SpriteVariant;
+import perso.arcade.service.image.PixelSheet;
+import perso.arcade.service.image.SpritePngWriter;
+import perso.arcade.service.image.SpriteSheetTransformer;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Génère les versions réduites d'une planche (moitié, quart, miniature) à côté de son blob. Les frames sont réduites
+ * une à une pour que la planche reste découpable avec le même nombre de frames.
+ */
+@Service
+public class SpriteVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteVariantService.class);
+
+    private final SpriteSheetTransformer spriteSheetTransformer;
+    private final SpritePngWriter spritePngWriter;
+    private final SpriteBlobStore spriteBlobStore;
+    private final int thumbSize;
+
+    public SpriteVariantService(SpriteSheetTransformer spriteSheetTransformer,
+                                SpritePngWriter spritePngWriter,
+                                SpriteBlobStore spriteBlobStore,
+                                @Value("${sprite.variant.thumb-size:64}") int thumbSize) {
+        this.spriteSheetTransformer = spriteSheetTransformer;
+        this.spritePngWriter = spritePngWriter;
+        this.spriteBlobStore = spriteBlobStore;
+        this.thumbSize = thumbSize;
+    }
+
+    public void generate(String hash, BufferedImage image, int frameCount, String name) {
+        try (PixelSheet sheet = spriteSheetTransformer.load(image)) {
+            generate(hash, sheet, frameCount, name);
+        }
+    }
+
+    /**
+     * Une erreur ne fait pas échouer l'appelant : l'original est alors servi à la place de la version manquante.
+     */
+    public void generate(String hash, PixelSheet sheet, int frameCount, String name) {
+        if (frameCount <= 0) {
+            return;
+        }
+
+        int frameWidth = sheet.width() / frameCount;
+        for (SpriteVariant variant : SpriteVariant.values()) {
+            if (Files.exists(spriteBlobStore.variantPath(hash, variant))) {
+                continue;
+            }
+
+            int[] size = targetSize(variant, frameWidth, sheet.height());
+            // HALF est toujours écrite : sa présence indique que la planche a été traitée.
+            if (variant != SpriteVariant.HALF && size[0] >= frameWidth && size[1] >= sheet.height()) {
+                continue;
+            }
+
+            try (PixelSheet reduced = spriteSheetTransformer.downscale(sheet, frameCount, size[0], size[1])) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                spritePngWriter.writeQuantized(reduced, name + "@" + variant.name().toLowerCase(), out);
+                spriteBlobStore.putVariant(hash, variant, out.toByteArray());
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Version {} non générée pour {}: {}", variant, name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Vrai si les versions réduites de ce blob restent à générer.
+     */
+    public boolean isMissing(String hash) {
+        return Files.notExists(spriteBlobStore.variantPath(hash, SpriteVariant.HALF));
+    }
+
+    private int[] targetSize(SpriteVariant variant, int frameWidth, int height) {
+        return switch (variant) {
+            case HALF -> new int[]{Math.max(1, frameWidth / 2), Math.max(1, height / 2)};
+            case QUARTER -> new int[]{Math.max(1, frameWidth / 4), Math.max(1, height / 4)};
+            case THUMB -> {
+                double scale = Math.min(1.0, (double) thumbSize / Math.max(frameWidth, height));
+                yield new int[]{
+                        Math.max(1, (int) Math.round(frameWidth * scale)),
+                        Math.max(1, (int) Math.round(height * scale))
+                };
+            }
+        };
+    }
+}
@@ -3,16 +3,15 @@ package perso.arcade.service;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import perso.arcade.model.entities.Player;
-import perso.arcade.repository.PlayerRepository;
+import perso.arcade.model.dto.PlayerRef;
 
 @Service
 public class UtilsService {
 
-    private final PlayerRepository playerRepository;
+    private final PlayerCache playerCache;
 
-    public UtilsService(PlayerRepository playerRepository) {
-        this.playerRepository = playerRepository;
+    public UtilsService(PlayerCache playerCache) {
+        this.playerCache = playerCache;
     }
 
     public String getPseudo() {
@@ -20,9 +19,10 @@ public class UtilsService {
         return authentication.getName();
     }
 
-    public Player getPlayer() {
-        String pseudo = getPseudo();
-        return playerRepository.findByPseudo(pseudo)
-                .orElseThrow(() -> new RuntimeException("Joueur non trouvé : " + pseudo));
+    /**
+     * Joueur connecté, résolu depuis le cache sans requête.
+     */
+    public PlayerRef getPlayer() {
+        return playerCache.get(getPseudo());
     }
-}
\ No newline at end of file
+}
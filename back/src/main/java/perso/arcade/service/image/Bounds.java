@@ -0,0 +1,12 @@
+package perso.arcade.service.image;
+
+public record Bounds(int minX, int maxX, int minY, int maxY) {
+
+    public int width() {
+        return maxX - minX + 1;
+    }
+
+    public int height() {
+        return maxY - minY + 1;
+    }
+}
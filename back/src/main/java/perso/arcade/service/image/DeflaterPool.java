@@ -0,0 +1,32 @@
+package perso.arcade.service.image;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Réserve de {@link Deflater} réutilisés entre deux encodages pour éviter d'allouer la mémoire native zlib à chaque
+ * écriture.
+ */
+public class DeflaterPool {
+
+    private final int level;
+    private final BlockingQueue<Deflater> idle;
+
+    public DeflaterPool(int level, int maxIdle) {
+        this.level = level;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    public Deflater acquire() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level);
+    }
+
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
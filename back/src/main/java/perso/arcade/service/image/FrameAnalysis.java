@@ -0,0 +1,46 @@
+package perso.arcade.service.image;
+
+/**
+ * Résultat d'un passage unique sur l'image : occupation des colonnes et lignes extrêmes contenant un pixel visible.
+ */
+public record FrameAnalysis(boolean[] columns, int minY, int maxY) {
+
+    public boolean hasContent() {
+        return maxY >= minY;
+    }
+
+    /**
+     * Bornes communes à toutes les frames, exprimées relativement à l'origine de chaque frame.
+     */
+    public Bounds globalBounds(int frameCount, int frameWidth) {
+        if (!hasContent()) {
+            return null;
+        }
+
+        int minX = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+
+        for (int i = 0; i < frameCount; i++) {
+            int start = i * frameWidth;
+            int end = Math.min(start + frameWidth, columns.length);
+
+            int first = start;
+            while (first < end && !columns[first]) {
+                first++;
+            }
+            if (first == end) {
+                continue;
+            }
+
+            int last = end - 1;
+            while (!columns[last]) {
+                last--;
+            }
+
+            minX = Math.min(minX, first - start);
+            maxX = Math.max(maxX, last - start);
+        }
+
+        return minX <= maxX ? new Bounds(minX, maxX, minY, maxY) : null;
+    }
+}
@@ -0,0 +1,218 @@
+package perso.arcade.service.image;
+
+import java.awt.image.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Analyse des planches de sprites directement sur le {@link DataBuffer} du raster, ligne par ligne.
+ */
+public final class FrameAnalyzer {
+
+    public static final int ALPHA_THRESHOLD = 10;
+    private static final int MIN_ABSOLUTE_WIDTH = 5;
+    private static final double RESIDUAL_THRESHOLD = 0.3;
+    private static final double LARGE_BLOCK_FACTOR = 1.9;
+    private static final double STDDEV_MULTIPLIER = 2.0;
+
+    private FrameAnalyzer() {
+    }
+
+    public static int detectFrames(BufferedImage img) {
+        List<Integer> widths = extractFrameWidths(analyze(img).columns());
+
+        if (widths.isEmpty()) {
+            return 1;
+        }
+
+        double avgWidth = calculateRobustAverageWidth(widths);
+        return Math.max(1, countFrames(widths, avgWidth));
+    }
+
+    public static FrameAnalysis analyze(BufferedImage img) {
+        return analyze(img, img.getWidth());
+    }
+
+    /**
+     * Parcourt les {@code width} premières colonnes de l'image en un seul passage.
+     */
+    public static FrameAnalysis analyze(BufferedImage img, int width) {
+        int height = img.getHeight();
+        boolean[] columns = new boolean[width];
+        int[] rows = {height, -1};
+
+        if (width == 0 || height == 0) {
+            return new FrameAnalysis(columns, rows[0], rows[1]);
+        }
+
+        ColorModel cm = img.getColorModel();
+        WritableRaster raster = img.getRaster();
+        DataBuffer buffer = raster.getDataBuffer();
+        SampleModel sm = raster.getSampleModel();
+
+        if (!cm.hasAlpha()) {
+            Arrays.fill(columns, true);
+            return new FrameAnalysis(columns, 0, height - 1);
+        }
+
+        if (buffer instanceof DataBufferInt ints
+                && sm instanceof SinglePixelPackedSampleModel packed
+                && cm instanceof DirectColorModel direct) {
+            scanPackedInts(ints, packed, direct, raster, width, height, columns, rows);
+        } else if (buffer instanceof DataBufferByte bytes
+                && sm instanceof ComponentSampleModel component
+                && cm instanceof ComponentColorModel
+                && cm.getComponentSize(cm.getNumComponents() - 1) == 8) {
+            scanInterleavedBytes(bytes, component, raster, width, height, columns, rows);
+        } else {
+            scanGeneric(img, width, height, columns, rows);
+        }
+
+        return new FrameAnalysis(columns, rows[0], rows[1]);
+    }
+
+    private static void scanPackedInts(DataBufferInt buffer, SinglePixelPackedSampleModel sm, DirectColorModel cm,
+                                       Raster raster, int width, int height, boolean[] columns, int[] rows) {
+        int[] data = buffer.getData();
+        int stride = sm.getScanlineStride();
+        int alphaMask = cm.getAlphaMask();
+        int shift = Integer.numberOfTrailingZeros(alphaMask);
+        int base = buffer.getOffset()
+                - raster.getSampleModelTranslateY() * stride
+                - raster.getSampleModelTranslateX();
+
+        for (int y = 0; y < height; y++) {
+            int idx = base + y * stride;
+            boolean rowHit = false;
+            for (int x = 0; x < width; x++) {
+                if (((data[idx + x] & alphaMask) >>> shift) > ALPHA_THRESHOLD) {
+                    columns[x] = true;
+                    rowHit = true;
+                }
+            }
+            markRow(rows, y, rowHit);
+        }
+    }
+
+    private static void scanInterleavedBytes(DataBufferByte buffer, ComponentSampleModel sm, Raster raster,
+                                             int width, int height, boolean[] columns, int[] rows) {
+        byte[] data = buffer.getData();
+        int[] bandOffsets = sm.getBandOffsets();
+        int[] bankIndices = sm.getBankIndices();
+        int alphaBand = bandOffsets.length - 1;
+        if (bankIndices[alphaBand] != 0) {
+            data = buffer.getData(bankIndices[alphaBand]);
+        }
+
+        int stride = sm.getScanlineStride();
+        int pixelStride = sm.getPixelStride();
+        int base = buffer.getOffset()
+                - raster.getSampleModelTranslateY() * stride
+                - raster.getSampleModelTranslateX() * pixelStride
+                + bandOffsets[alphaBand];
+
+        for (int y = 0; y < height; y++) {
+            int idx = base + y * stride;
+            boolean rowHit = false;
+            for (int x = 0; x < width; x++, idx += pixelStride) {
+                if ((data[idx] & 0xff) > ALPHA_THRESHOLD) {
+                    columns[x] = true;
+                    rowHit = true;
+                }
+            }
+            markRow(rows, y, rowHit);
+        }
+    }
+
+    private static void scanGeneric(BufferedImage img, int width, int height, boolean[] columns, int[] rows) {
+        int[] row = new int[width];
+
+        for (int y = 0; y < height; y++) {
+            img.getRGB(0, y, width, 1, row, 0, width);
+            boolean rowHit = false;
+            for (int x = 0; x < width; x++) {
+                if ((row[x] >>> 24) > ALPHA_THRESHOLD) {
+                    columns[x] = true;
+                    rowHit = true;
+                }
+            }
+            markRow(rows, y, rowHit);
+        }
+    }
+
+    private static void markRow(int[] rows, int y, boolean rowHit) {
+        if (rowHit) {
+            if (rows[1] < 0) {
+                rows[0] = y;
+            }
+            rows[1] = y;
+        }
+    }
+
+    private static List<Integer> extractFrameWidths(boolean[] columns) {
+        List<Integer> widths = new ArrayList<>();
+        int current = 0;
+
+        for (boolean hasPixel : columns) {
+            if (hasPixel) {
+                current++;
+            } else if (current > 0) {
+                widths.add(current);
+                current = 0;
+            }
+        }
+
+        if (current > 0) {
+            widths.add(current);
+        }
+
+        return widths;
+    }
+
+    private static double calculateRobustAverageWidth(List<Integer> widths) {
+        List<Integer> filtered = widths.stream()
+                .filter(w -> w >= MIN_ABSOLUTE_WIDTH)
+                .toList();
+
+        if (filtered.isEmpty()) {
+            return 0;
+        }
+
+        double mean = filtered.stream()
+                .mapToInt(i -> i)
+                .average()
+                .orElse(0);
+
+        double stdDev = Math.sqrt(
+                filtered.stream()
+                        .mapToDouble(i -> (i - mean) * (i - mean))
+                        .average()
+                        .orElse(0)
+        );
+
+        return filtered.stream()
+                .filter(w -> Math.abs(w - mean) <= STDDEV_MULTIPLIER * stdDev)
+                .mapToInt(i -> i)
+                .average()
+                .orElse(mean);
+    }
+
+    private static int countFrames(List<Integer> widths, double avgWidth) {
+        int total = 0;
+
+        for (int w : widths) {
+            if (w < MIN_ABSOLUTE_WIDTH || w < avgWidth * RESIDUAL_THRESHOLD) {
+                continue;
+            }
+
+            if (w > avgWidth * LARGE_BLOCK_FACTOR) {
+                total += Math.max(1, (int) Math.floor(w / avgWidth));
+            } else {
+                total += 1;
+            }
+        }
+
+        return total;
+    }
+}
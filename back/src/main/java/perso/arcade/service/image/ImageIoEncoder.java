@@ -0,0 +1,21 @@
+package perso.arcade.service.image;
+
+import javax.imageio.ImageIO;
+import java.awt.image.*;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodeur du JDK, réglages zlib par défaut. Conservé comme référence et solution de repli.
+ */
+public class ImageIoEncoder implements LosslessEncoder {
+
+    private static final int[] ARGB_MASKS = {0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000};
+
+    @Override
+    public void encode(int[] argb, int width, int height, OutputStream out) throws IOException {
+        DataBufferInt buffer = new DataBufferInt(argb, width * height);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, ARGB_MASKS, null);
+        ImageIO.write(new BufferedImage(ColorModel.getRGBdefault(), raster, false, null), "png", out);
+    }
+}
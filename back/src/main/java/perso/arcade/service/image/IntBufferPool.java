@@ -0,0 +1,58 @@
+package perso.arcade.service.image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Petite réserve de tableaux de pixels réutilisés d'une requête à l'autre. Les tableaux trop grands ne sont jamais
+ * conservés, ce qui borne la mémoire retenue à {@code maxIdle * maxPooledLength} entiers.
+ */
+public class IntBufferPool {
+
+    private final int maxIdle;
+    private final int maxPooledLength;
+    private final List<int[]> idle = new ArrayList<>();
+
+    public IntBufferPool(int maxIdle, int maxPooledLength) {
+        this.maxIdle = maxIdle;
+        this.maxPooledLength = maxPooledLength;
+    }
+
+    public synchronized int[] acquire(int length) {
+        int best = -1;
+        for (int i = 0; i < idle.size(); i++) {
+            int candidate = idle.get(i).length;
+            if (candidate >= length && (best < 0 || candidate < idle.get(best).length)) {
+                best = i;
+            }
+        }
+        return best >= 0 ? idle.remove(best) : new int[length];
+    }
+
+    /**
+     * Un tableau déjà en réserve n'y est pas ajouté une seconde fois.
+     */
+    public synchronized void release(int[] buffer) {
+        if (buffer.length > maxPooledLength) {
+            return;
+        }
+        for (int[] candidate : idle) {
+            if (candidate == buffer) {
+                return;
+            }
+        }
+        if (idle.size() >= maxIdle) {
+            int smallest = 0;
+            for (int i = 1; i < idle.size(); i++) {
+                if (idle.get(i).length < idle.get(smallest).length) {
+                    smallest = i;
+                }
+            }
+            if (idle.get(smallest).length >= buffer.length) {
+                return;
+            }
+            idle.remove(smallest);
+        }
+        idle.add(buffer);
+    }
+}
@@ -0,0 +1,13 @@
+package perso.arcade.service.image;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Écriture PNG sans perte d'une planche ARGB non prémultipliée ({@code stride == width}). L'implémentation est
+ * choisie par {@code sprite.png.encoder}.
+ */
+public interface LosslessEncoder {
+
+    void encode(int[] argb, int width, int height, OutputStream out) throws IOException;
+}
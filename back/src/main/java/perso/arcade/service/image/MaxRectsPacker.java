@@ -0,0 +1,147 @@
+package perso.arcade.service.image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Placement de rectangles sur des pages carrées par l'algorithme MaxRects (heuristique « best short side fit »,
+ * sans rotation). Des zones peuvent être réservées avant insertion pour conserver un placement précédent.
+ */
+public class MaxRectsPacker {
+
+    private final int pageSize;
+    private final List<List<Rect>> freeRects = new ArrayList<>();
+
+    public MaxRectsPacker(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int pageCount() {
+        return freeRects.size();
+    }
+
+    /**
+     * Marque une zone comme occupée, en créant les pages manquantes.
+     */
+    public void occupy(int page, Rect used) {
+        while (freeRects.size() <= page) {
+            addPage();
+        }
+        split(freeRects.get(page), used);
+    }
+
+    /**
+     * Retourne {@code null} si le rectangle ne tient pas dans une page vide.
+     */
+    public Placement insert(int width, int height) {
+        if (width > pageSize || height > pageSize) {
+            return null;
+        }
+
+        for (int page = 0; page < freeRects.size(); page++) {
+            Rect rect = findPosition(freeRects.get(page), width, height);
+            if (rect != null) {
+                split(freeRects.get(page), rect);
+                return new Placement(page, rect);
+            }
+        }
+
+        addPage();
+        int page = freeRects.size() - 1;
+        Rect rect = new Rect(0, 0, width, height);
+        split(freeRects.get(page), rect);
+        return new Placement(page, rect);
+    }
+
+    private void addPage() {
+        List<Rect> free = new ArrayList<>();
+        free.add(new Rect(0, 0, pageSize, pageSize));
+        freeRects.add(free);
+    }
+
+    private Rect findPosition(List<Rect> free, int width, int height) {
+        Rect best = null;
+        int bestShort = Integer.MAX_VALUE;
+        int bestLong = Integer.MAX_VALUE;
+
+        for (Rect candidate : free) {
+            if (candidate.width() < width || candidate.height() < height) {
+                continue;
+            }
+            int leftoverX = candidate.width() - width;
+            int leftoverY = candidate.height() - height;
+            int shortSide = Math.min(leftoverX, leftoverY);
+            int longSide = Math.max(leftoverX, leftoverY);
+
+            if (shortSide < bestShort || (shortSide == bestShort && longSide < bestLong)) {
+                best = new Rect(candidate.x(), candidate.y(), width, height);
+                bestShort = shortSide;
+                bestLong = longSide;
+            }
+        }
+        return best;
+    }
+
+    private void split(List<Rect> free, Rect used) {
+        List<Rect> created = new ArrayList<>();
+
+        for (int i = free.size() - 1; i >= 0; i--) {
+            Rect rect = free.get(i);
+            if (!rect.intersects(used)) {
+                continue;
+            }
+            free.remove(i);
+
+            if (used.x() > rect.x()) {
+                created.add(new Rect(rect.x(), rect.y(), used.x() - rect.x(), rect.height()));
+            }
+            if (used.right() < rect.right()) {
+                created.add(new Rect(used.right(), rect.y(), rect.right() - used.right(), rect.height()));
+            }
+            if (used.y() > rect.y()) {
+                created.add(new Rect(rect.x(), rect.y(), rect.width(), used.y() - rect.y()));
+            }
+            if (used.bottom() < rect.bottom()) {
+                created.add(new Rect(rect.x(), used.bottom(), rect.width(), rect.bottom() - used.bottom()));
+            }
+        }
+
+        free.addAll(created);
+        prune(free);
+    }
+
+    private void prune(List<Rect> free) {
+        for (int i = 0; i < free.size(); i++) {
+            for (int j = i + 1; j < free.size(); j++) {
+                if (free.get(j).contains(free.get(i))) {
+                    free.remove(i--);
+                    break;
+                }
+                if (free.get(i).contains(free.get(j))) {
+                    free.remove(j--);
+                }
+            }
+        }
+    }
+
+    public record Rect(int x, int y, int width, int height) {
+        int right() {
+            return x + width;
+        }
+
+        int bottom() {
+            return y + height;
+        }
+
+        boolean intersects(Rect other) {
+            return x < other.right() && other.x < right() && y < other.bottom() && other.y < bottom();
+        }
+
+        boolean contains(Rect other) {
+            return other.x >= x && other.y >= y && other.right() <= right() && other.bottom() <= bottom();
+        }
+    }
+
+    public record Placement(int page, Rect rect) {
+    }
+}
@@ -0,0 +1,423 @@
+package perso.arcade.service.image;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Réduction à 256 couleurs RGBA par coupe médiane, avec des bornes de qualité équivalentes à celles de pngquant
+ * ({@code --quality=min-max}).
+ */
+public final class PaletteQuantizer {
+
+    public static final int MAX_COLORS = 256;
+    private static final int[] CHECKPOINTS = {32, 64, 128, MAX_COLORS};
+    private static final int MAX_REFINED_COLORS = 1 << 16;
+    private static final int REFINE_ITERATIONS = 2;
+
+    private PaletteQuantizer() {
+    }
+
+    /**
+     * Retourne {@code null} si même 256 couleurs ne permettent pas d'atteindre {@code minQuality}.
+     * S'arrête à la plus petite palette atteignant {@code maxQuality}.
+     */
+    public static IndexedImage quantize(int[] argb, int width, int height, int minQuality, int maxQuality) {
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            int p = argb[i];
+            pixels[i] = (p >>> 24) == 0 ? 0 : p;
+        }
+
+        Histogram histogram = Histogram.of(pixels);
+
+        if (histogram.size() <= MAX_COLORS) {
+            int[] identity = new int[histogram.size()];
+            for (int i = 0; i < identity.length; i++) {
+                identity[i] = i;
+            }
+            return build(width, height, pixels, histogram, histogram.colors().clone(), identity, 100);
+        }
+
+        // La qualité de chaque palette intermédiaire est estimée sur les boîtes, seule la palette retenue est affinée
+        MedianCut cut = new MedianCut(histogram);
+        for (int checkpoint : CHECKPOINTS) {
+            boolean exhausted = !cut.splitUntil(checkpoint);
+            int[] palette = cut.palette();
+            int[] mapping = cut.boxMapping();
+            int quality = mseToQuality(meanSquaredError(histogram, palette, mapping));
+
+            if (quality >= maxQuality || exhausted || checkpoint == MAX_COLORS) {
+                if (histogram.size() <= MAX_REFINED_COLORS) {
+                    for (int i = 0; i < REFINE_ITERATIONS; i++) {
+                        mapping = nearestMapping(histogram, palette);
+                        palette = centroids(histogram, palette, mapping);
+                    }
+                    mapping = nearestMapping(histogram, palette);
+                    quality = mseToQuality(meanSquaredError(histogram, palette, mapping));
+                }
+                return quality >= minQuality
+                        ? build(width, height, pixels, histogram, palette, mapping, quality)
+                        : null;
+            }
+        }
+
+        return null;
+    }
+
+    private static IndexedImage build(int width, int height, int[] pixels, Histogram histogram,
+                                      int[] palette, int[] mapping, int quality) {
+        // Les entrées translucides en tête de palette pour garder un chunk tRNS court
+        Integer[] order = new Integer[palette.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(palette[a] >>> 24, palette[b] >>> 24));
+
+        int[] sortedPalette = new int[palette.length];
+        int[] position = new int[palette.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedPalette[i] = palette[order[i]];
+            position[order[i]] = i;
+        }
+
+        byte[] indices = new byte[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            int colorIndex = Arrays.binarySearch(histogram.colors(), pixels[i]);
+            indices[i] = (byte) position[mapping[colorIndex]];
+        }
+
+        return new IndexedImage(width, height, sortedPalette, indices, quality);
+    }
+
+    /**
+     * Recherche du plus proche voisin avec la palette triée sur le canal vert : l'exploration s'arrête dès que
+     * l'écart sur ce seul canal dépasse la meilleure distance trouvée.
+     */
+    private static int[] nearestMapping(Histogram histogram, int[] palette) {
+        int n = palette.length;
+        long[] keyed = new long[n];
+        for (int p = 0; p < n; p++) {
+            keyed[p] = ((long) ((palette[p] >> 8) & 0xff) << 32) | p;
+        }
+        Arrays.sort(keyed);
+
+        int[] index = new int[n];
+        int[] pa = new int[n];
+        int[] pr = new int[n];
+        int[] pg = new int[n];
+        int[] pb = new int[n];
+        for (int k = 0; k < n; k++) {
+            int p = (int) keyed[k];
+            index[k] = p;
+            pa[k] = palette[p] >>> 24;
+            pr[k] = (palette[p] >> 16) & 0xff;
+            pg[k] = (palette[p] >> 8) & 0xff;
+            pb[k] = palette[p] & 0xff;
+        }
+
+        int[] colors = histogram.colors();
+        int[] mapping = new int[colors.length];
+
+        for (int i = 0; i < colors.length; i++) {
+            int a = colors[i] >>> 24;
+            int r = (colors[i] >> 16) & 0xff;
+            int g = (colors[i] >> 8) & 0xff;
+            int b = colors[i] & 0xff;
+
+            int start = 0;
+            while (start < n - 1 && pg[start] < g) {
+                start++;
+            }
+
+            int best = start;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int lo = start - 1, hi = start; lo >= 0 || hi < n; ) {
+                if (hi < n) {
+                    int dg = g - pg[hi];
+                    if (dg * dg >= bestDistance) {
+                        hi = n;
+                    } else {
+                        int da = a - pa[hi];
+                        int dr = r - pr[hi];
+                        int db = b - pb[hi];
+                        int d = da * da + dr * dr + dg * dg + db * db;
+                        if (d < bestDistance) {
+                            bestDistance = d;
+                            best = hi;
+                        }
+                        hi++;
+                    }
+                }
+                if (lo >= 0) {
+                    int dg = g - pg[lo];
+                    if (dg * dg >= bestDistance) {
+                        lo = -1;
+                    } else {
+                        int da = a - pa[lo];
+                        int dr = r - pr[lo];
+                        int db = b - pb[lo];
+                        int d = da * da + dr * dr + dg * dg + db * db;
+                        if (d < bestDistance) {
+                            bestDistance = d;
+                            best = lo;
+                        }
+                        lo--;
+                    }
+                }
+            }
+            mapping[i] = index[best];
+        }
+
+        return mapping;
+    }
+
+    /**
+     * Une itération de k-means : chaque entrée devient la moyenne pondérée des couleurs qui lui sont associées.
+     */
+    private static int[] centroids(Histogram histogram, int[] palette, int[] mapping) {
+        int[] colors = histogram.colors();
+        int[] counts = histogram.counts();
+        long[][] sums = new long[palette.length][4];
+        long[] population = new long[palette.length];
+
+        for (int i = 0; i < colors.length; i++) {
+            long[] sum = sums[mapping[i]];
+            for (int c = 0; c < 4; c++) {
+                sum[c] += (long) channel(colors[i], c) * counts[i];
+            }
+            population[mapping[i]] += counts[i];
+        }
+
+        int[] refined = palette.clone();
+        for (int p = 0; p < palette.length; p++) {
+            if (population[p] > 0) {
+                int color = 0;
+                for (int c = 0; c < 4; c++) {
+                    color |= (int) Math.round((double) sums[p][c] / population[p]) << (24 - c * 8);
+                }
+                refined[p] = color;
+            }
+        }
+        return refined;
+    }
+
+    private static double meanSquaredError(Histogram histogram, int[] palette, int[] mapping) {
+        int[] colors = histogram.colors();
+        int[] counts = histogram.counts();
+        double sum = 0;
+        long total = 0;
+
+        for (int i = 0; i < colors.length; i++) {
+            sum += (double) distance(colors[i], palette[mapping[i]]) * counts[i];
+            total += counts[i];
+        }
+
+        return sum / total / (255.0 * 255.0);
+    }
+
+    private static long distance(int c1, int c2) {
+        long da = (c1 >>> 24) - (c2 >>> 24);
+        long dr = ((c1 >> 16) & 0xff) - ((c2 >> 16) & 0xff);
+        long dg = ((c1 >> 8) & 0xff) - ((c2 >> 8) & 0xff);
+        long db = (c1 & 0xff) - (c2 & 0xff);
+        return da * da + dr * dr + dg * dg + db * db;
+    }
+
+    /**
+     * Même échelle que pngquant : la qualité la plus haute dont l'erreur tolérée couvre l'erreur mesurée.
+     */
+    static int mseToQuality(double mse) {
+        for (int q = 100; q > 0; q--) {
+            if (qualityToMse(q) >= mse) {
+                return q;
+            }
+        }
+        return 0;
+    }
+
+    private static double qualityToMse(int quality) {
+        if (quality >= 100) {
+            return 0;
+        }
+        double extraLowQualityFudge = Math.max(0, 0.016 / (0.001 + quality) - 0.001);
+        return extraLowQualityFudge + 2.5 / Math.pow(210.0 + quality, 1.2) * (100.1 - quality) / 100.0;
+    }
+
+    private static int channel(int color, int channel) {
+        return (color >>> (24 - channel * 8)) & 0xff;
+    }
+
+    public record IndexedImage(int width, int height, int[] palette, byte[] indices, int quality) {
+    }
+
+    private record Histogram(int[] colors, int[] counts) {
+
+        static Histogram of(int[] pixels) {
+            int[] sorted = pixels.clone();
+            Arrays.sort(sorted);
+
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    unique++;
+                }
+            }
+
+            int[] colors = new int[unique];
+            int[] counts = new int[unique];
+            int k = -1;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    colors[++k] = sorted[i];
+                }
+                counts[k]++;
+            }
+
+            return new Histogram(colors, counts);
+        }
+
+        int size() {
+            return colors.length;
+        }
+    }
+
+    private static final class MedianCut {
+
+        private final Histogram histogram;
+        private final int[] order;
+        private final List<Box> boxes = new ArrayList<>();
+
+        MedianCut(Histogram histogram) {
+            this.histogram = histogram;
+            this.order = new int[histogram.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            boxes.add(new Box(0, order.length));
+        }
+
+        /**
+         * Retourne {@code false} si plus aucune boîte n'est divisible avant d'atteindre {@code target}.
+         */
+        boolean splitUntil(int target) {
+            while (boxes.size() < target) {
+                Box widest = null;
+                for (Box box : boxes) {
+                    if (box.splittable() && (widest == null || box.score() > widest.score())) {
+                        widest = box;
+                    }
+                }
+                if (widest == null) {
+                    return false;
+                }
+                split(widest);
+            }
+            return true;
+        }
+
+        int[] palette() {
+            int[] palette = new int[boxes.size()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = boxes.get(i).mean;
+            }
+            return palette;
+        }
+
+        int[] boxMapping() {
+            int[] mapping = new int[order.length];
+            for (int b = 0; b < boxes.size(); b++) {
+                Box box = boxes.get(b);
+                for (int i = box.lo; i < box.hi; i++) {
+                    mapping[order[i]] = b;
+                }
+            }
+            return mapping;
+        }
+
+        private void split(Box box) {
+            int channel = box.widestChannel;
+            int length = box.hi - box.lo;
+            long[] keyed = new long[length];
+            for (int i = 0; i < length; i++) {
+                int index = order[box.lo + i];
+                keyed[i] = ((long) channel(histogram.colors()[index], channel) << 32) | index;
+            }
+            Arrays.sort(keyed);
+            for (int i = 0; i < length; i++) {
+                order[box.lo + i] = (int) keyed[i];
+            }
+
+            long half = box.population / 2;
+            long cumulative = 0;
+            int cut = box.lo + 1;
+            for (int i = box.lo; i < box.hi - 1; i++) {
+                cumulative += histogram.counts()[order[i]];
+                cut = i + 1;
+                if (cumulative >= half) {
+                    break;
+                }
+            }
+
+            boxes.remove(box);
+            boxes.add(new Box(box.lo, cut));
+            boxes.add(new Box(cut, box.hi));
+        }
+
+        private final class Box {
+            final int lo;
+            final int hi;
+            final long population;
+            final int mean;
+            final int widestChannel;
+            final int widestRange;
+
+            Box(int lo, int hi) {
+                this.lo = lo;
+                this.hi = hi;
+
+                int[] min = {255, 255, 255, 255};
+                int[] max = {0, 0, 0, 0};
+                long[] sum = new long[4];
+                long population = 0;
+
+                for (int i = lo; i < hi; i++) {
+                    int color = histogram.colors()[order[i]];
+                    int count = histogram.counts()[order[i]];
+                    population += count;
+                    for (int c = 0; c < 4; c++) {
+                        int v = channel(color, c);
+                        min[c] = Math.min(min[c], v);
+                        max[c] = Math.max(max[c], v);
+                        sum[c] += (long) v * count;
+                    }
+                }
+
+                int widest = 0;
+                for (int c = 1; c < 4; c++) {
+                    if (max[c] - min[c] > max[widest] - min[widest]) {
+                        widest = c;
+                    }
+                }
+
+                int mean = 0;
+                for (int c = 0; c < 4; c++) {
+                    mean |= (int) Math.round((double) sum[c] / population) << (24 - c * 8);
+                }
+
+                this.population = population;
+                this.mean = mean;
+                this.widestChannel = widest;
+                this.widestRange = max[widest] - min[widest];
+            }
+
+            boolean splittable() {
+                return hi - lo > 1;
+            }
+
+            long score() {
+                return (long) widestRange * population;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package perso.arcade.service.image;
+
+import java.awt.image.*;
+
+/**
+ * Planche de sprites en ARGB non prémultiplié, une ligne après l'autre ({@code stride == width}).
+ * Le tableau retourne dans sa réserve à la fermeture : l'image obtenue par {@link #toImage()} ne doit plus être
+ * utilisée ensuite.
+ */
+public final class PixelSheet implements AutoCloseable {
+
+    private static final int[] ARGB_MASKS = {0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000};
+
+    private final int[] pixels;
+    private final int width;
+    private final int height;
+    private final IntBufferPool pool;
+    private boolean closed;
+
+    PixelSheet(int[] pixels, int width, int height, IntBufferPool pool) {
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+        this.pool = pool;
+    }
+
+    public int[] pixels() {
+        return pixels;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Vue {@link BufferedImage} partageant le tableau de pixels, sans copie.
+     */
+    public BufferedImage toImage() {
+        DataBufferInt buffer = new DataBufferInt(pixels, width * height);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, ARGB_MASKS, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    /**
+     * Idempotent : un second appel ne rend pas le tableau une deuxième fois, ce qui le ferait partager par deux
+     * planches.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (pool != null) {
+            pool.release(pixels);
+        }
+    }
+}
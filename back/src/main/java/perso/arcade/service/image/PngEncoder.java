@@ -0,0 +1,333 @@
+package perso.arcade.service.image;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodeur PNG minimal : uniquement les chunks critiques (IHDR, PLTE, tRNS, IDAT, IEND), sans métadonnées.
+ * <p>
+ * En mode sans perte, l'image passe en palette exacte quand elle compte au plus 256 couleurs (profondeur 1, 2, 4
+ * ou 8 bits), sinon en RGB ou RGBA selon la présence de transparence. Le filtre de chaque ligne est choisi par la
+ * somme minimale des écarts ; en palette 8 bits, le résultat est comparé au flux non filtré pour garder le plus
+ * court.
+ */
+public class PngEncoder implements LosslessEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int COLOR_TYPE_INDEXED = 3;
+    private static final int COLOR_TYPE_RGBA = 6;
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+
+    private final DeflaterPool deflaterPool;
+
+    public PngEncoder(DeflaterPool deflaterPool) {
+        this.deflaterPool = deflaterPool;
+    }
+
+    public void encodeIndexed(PaletteQuantizer.IndexedImage image, OutputStream out) throws IOException {
+        writeIndexed(image.width(), image.height(), image.palette(), image.indices(), out);
+    }
+
+    @Override
+    public void encode(int[] argb, int width, int height, OutputStream out) throws IOException {
+        int count = width * height;
+        ColorIndex colors = new ColorIndex();
+        boolean opaque = true;
+
+        for (int i = 0; i < count; i++) {
+            int color = visible(argb[i]);
+            opaque &= (color >>> 24) == 0xff;
+            if (colors != null && !colors.add(color)) {
+                colors = null;
+            }
+        }
+
+        if (colors != null) {
+            int[] palette = colors.palette();
+            byte[] indices = new byte[count];
+            for (int i = 0; i < count; i++) {
+                indices[i] = (byte) colors.indexOf(visible(argb[i]));
+            }
+            writeIndexed(width, height, palette, indices, out);
+            return;
+        }
+
+        int bpp = opaque ? 3 : 4;
+        int rowBytes = width * bpp;
+        byte[] raw = new byte[rowBytes * height];
+        int o = 0;
+        for (int i = 0; i < count; i++) {
+            int color = visible(argb[i]);
+            raw[o++] = (byte) (color >> 16);
+            raw[o++] = (byte) (color >> 8);
+            raw[o++] = (byte) color;
+            if (!opaque) {
+                raw[o++] = (byte) (color >>> 24);
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        writeHeader(data, width, height, 8, opaque ? COLOR_TYPE_RGB : COLOR_TYPE_RGBA);
+        // En couleurs vraies, le filtrage par ligne est presque toujours gagnant : une seule compression.
+        writeChunk(data, "IDAT", deflate(filter(raw, rowBytes, height, bpp, true)));
+        writeChunk(data, "IEND", new byte[0]);
+        data.flush();
+    }
+
+    private void writeIndexed(int width, int height, int[] palette, byte[] indices, OutputStream out)
+            throws IOException {
+        int bitDepth = palette.length <= 2 ? 1 : palette.length <= 4 ? 2 : palette.length <= 16 ? 4 : 8;
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        writeHeader(data, width, height, bitDepth, COLOR_TYPE_INDEXED);
+
+        byte[] plte = new byte[palette.length * 3];
+        int transparent = 0;
+        for (int i = 0; i < palette.length; i++) {
+            plte[i * 3] = (byte) (palette[i] >> 16);
+            plte[i * 3 + 1] = (byte) (palette[i] >> 8);
+            plte[i * 3 + 2] = (byte) palette[i];
+            if ((palette[i] >>> 24) != 0xff) {
+                transparent = i + 1;
+            }
+        }
+        writeChunk(data, "PLTE", plte);
+
+        if (transparent > 0) {
+            byte[] trns = new byte[transparent];
+            for (int i = 0; i < transparent; i++) {
+                trns[i] = (byte) (palette[i] >>> 24);
+            }
+            writeChunk(data, "tRNS", trns);
+        }
+
+        int rowBytes = (width * bitDepth + 7) / 8;
+        byte[] packed = bitDepth == 8 ? indices : pack(indices, width, height, bitDepth, rowBytes);
+        // Sous 8 bits, les filtres n'aident pas la compression (recommandation de la spécification PNG).
+        writeChunk(data, "IDAT", compress(packed, rowBytes, height, 1, bitDepth == 8));
+
+        writeChunk(data, "IEND", new byte[0]);
+        data.flush();
+    }
+
+    private void writeHeader(DataOutputStream data, int width, int height, int bitDepth, int colorType)
+            throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream ihdr = new DataOutputStream(header);
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.writeByte(bitDepth);
+        ihdr.writeByte(colorType);
+        ihdr.writeByte(0);
+        ihdr.writeByte(0);
+        ihdr.writeByte(0);
+        writeChunk(data, "IHDR", header.toByteArray());
+    }
+
+    private byte[] pack(byte[] indices, int width, int height, int bitDepth, int rowBytes) {
+        byte[] packed = new byte[rowBytes * height];
+        int perByte = 8 / bitDepth;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int out = y * rowBytes;
+            for (int x = 0; x < width; x++) {
+                int shift = 8 - bitDepth * (x % perByte + 1);
+                packed[out + x / perByte] |= (byte) ((indices[row + x] & 0xff) << shift);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Compresse les lignes sans filtre et, si {@code adaptive}, avec un filtre choisi par ligne ; garde le plus
+     * court des deux flux.
+     */
+    private byte[] compress(byte[] raw, int rowBytes, int height, int bpp, boolean adaptive) {
+        byte[] plain = deflate(filter(raw, rowBytes, height, bpp, false));
+        if (!adaptive) {
+            return plain;
+        }
+        byte[] filtered = deflate(filter(raw, rowBytes, height, bpp, true));
+        return filtered.length < plain.length ? filtered : plain;
+    }
+
+    private byte[] filter(byte[] raw, int rowBytes, int height, int bpp, boolean adaptive) {
+        byte[] out = new byte[(rowBytes + 1) * height];
+        byte[][] candidates = adaptive ? new byte[5][rowBytes] : null;
+
+        for (int y = 0; y < height; y++) {
+            int row = y * rowBytes;
+            int target = y * (rowBytes + 1);
+
+            if (!adaptive) {
+                out[target] = FILTER_NONE;
+                System.arraycopy(raw, row, out, target + 1, rowBytes);
+                continue;
+            }
+
+            int best = FILTER_NONE;
+            long bestScore = Long.MAX_VALUE;
+            for (int type = FILTER_NONE; type <= FILTER_PAETH; type++) {
+                long score = applyFilter(type, raw, row, y > 0 ? row - rowBytes : -1, rowBytes, bpp,
+                        candidates[type]);
+                if (score < bestScore) {
+                    best = type;
+                    bestScore = score;
+                }
+            }
+
+            out[target] = (byte) best;
+            System.arraycopy(candidates[best], 0, out, target + 1, rowBytes);
+        }
+        return out;
+    }
+
+    /**
+     * Écrit la ligne filtrée dans {@code dst} et retourne la somme des valeurs absolues (octets signés).
+     */
+    private long applyFilter(int type, byte[] raw, int row, int previous, int rowBytes, int bpp, byte[] dst) {
+        long score = 0;
+        for (int i = 0; i < rowBytes; i++) {
+            int x = raw[row + i] & 0xff;
+            int a = i >= bpp ? raw[row + i - bpp] & 0xff : 0;
+            int b = previous >= 0 ? raw[previous + i] & 0xff : 0;
+            int c = previous >= 0 && i >= bpp ? raw[previous + i - bpp] & 0xff : 0;
+
+            int value = switch (type) {
+                case FILTER_SUB -> x - a;
+                case FILTER_UP -> x - b;
+                case FILTER_AVERAGE -> x - ((a + b) >> 1);
+                case FILTER_PAETH -> x - paeth(a, b, c);
+                default -> x;
+            };
+            dst[i] = (byte) value;
+            score += Math.abs((byte) value);
+        }
+        return score;
+    }
+
+    private int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    private byte[] deflate(byte[] data) {
+        Deflater deflater = deflaterPool.acquire();
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                compressed.write(buffer, 0, length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflaterPool.release(deflater);
+        }
+    }
+
+    private void writeChunk(DataOutputStream out, String type, byte[] payload) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(payload);
+
+        out.writeInt(payload.length);
+        out.write(typeBytes);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Un pixel entièrement transparent n'a pas de couleur visible : il est ramené à 0 pour compresser mieux.
+     */
+    private static int visible(int argb) {
+        return (argb >>> 24) == 0 ? 0 : argb;
+    }
+
+    /**
+     * Table de hachage ouverte limitée à 256 couleurs, sans allocation par pixel.
+     */
+    private static final class ColorIndex {
+        private static final int CAPACITY = 1024;
+
+        private final int[] keys = new int[CAPACITY];
+        private final short[] values = new short[CAPACITY];
+        private final boolean[] used = new boolean[CAPACITY];
+        private final int[] colors = new int[PaletteQuantizer.MAX_COLORS];
+        private int[] position;
+        private int size;
+
+        /**
+         * Retourne {@code false} si la couleur est nouvelle et que la palette est pleine.
+         */
+        boolean add(int color) {
+            int slot = slot(color);
+            if (used[slot]) {
+                return true;
+            }
+            if (size == colors.length) {
+                return false;
+            }
+            used[slot] = true;
+            keys[slot] = color;
+            values[slot] = (short) size;
+            colors[size++] = color;
+            return true;
+        }
+
+        /**
+         * Index dans la palette retournée par {@link #palette()}.
+         */
+        int indexOf(int color) {
+            return position[values[slot(color)]];
+        }
+
+        /**
+         * Palette avec les couleurs transparentes en tête, pour raccourcir le chunk tRNS.
+         */
+        int[] palette() {
+            int[] palette = new int[size];
+            position = new int[size];
+            int next = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < size; i++) {
+                    boolean translucent = (colors[i] >>> 24) != 0xff;
+                    if (translucent == (pass == 0)) {
+                        position[i] = next;
+                        palette[next++] = colors[i];
+                    }
+                }
+            }
+            return palette;
+        }
+
+        private int slot(int color) {
+            int slot = (color * 0x9E3779B9) >>> 22;
+            while (used[slot] && keys[slot] != color) {
+                slot = (slot + 1) & (CAPACITY - 1);
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package perso.arcade.service.image;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Remplace l'appel à pngquant : quantification et encodage PNG dans la JVM. Toutes les écritures sans perte du
+ * stockage passent aussi par ici, avec l'encodeur choisi par {@code sprite.png.encoder} ({@code optimized} ou
+ * {@code imageio}).
+ */
+@Component
+public class SpritePngWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(SpritePngWriter.class);
+
+    private final PngEncoder encoder;
+    private final LosslessEncoder losslessEncoder;
+    private final int minQuality;
+    private final int maxQuality;
+
+    public SpritePngWriter(@Value("${sprite.png.min-quality:60}") int minQuality,
+                           @Value("${sprite.png.max-quality:80}") int maxQuality,
+                           @Value("${sprite.png.deflate-level:9}") int deflateLevel,
+                           @Value("${sprite.png.encoder:optimized}") String losslessEncoder) {
+        this.minQuality = minQuality;
+        this.maxQuality = maxQuality;
+        this.encoder = new PngEncoder(new DeflaterPool(deflateLevel, Runtime.getRuntime().availableProcessors()));
+        this.losslessEncoder = switch (losslessEncoder) {
+            case "optimized" -> encoder;
+            case "imageio" -> new ImageIoEncoder();
+            default -> throw new IllegalArgumentException("Encodeur PNG inconnu: " + losslessEncoder);
+        };
+    }
+
+    /**
+     * Écrit la planche en palette si la qualité minimale est atteignable, sinon en PNG sans perte. Les pixels sont
+     * quantifiés directement, sans copie.
+     */
+    public void writeQuantized(PixelSheet sheet, String name, OutputStream out) throws IOException {
+        write(sheet.pixels(), sheet.width(), sheet.height(), name, out);
+    }
+
+    public void writeLossless(PixelSheet sheet, OutputStream out) throws IOException {
+        losslessEncoder.encode(sheet.pixels(), sheet.width(), sheet.height(), out);
+    }
+
+    public void writeLossless(BufferedImage image, OutputStream out) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        losslessEncoder.encode(image.getRGB(0, 0, width, height, null, 0, width), width, height, out);
+    }
+
+    private void write(int[] argb, int width, int height, String name, OutputStream out) throws IOException {
+        PaletteQuantizer.IndexedImage indexed = PaletteQuantizer.quantize(argb, width, height, minQuality, maxQuality);
+
+        if (indexed == null) {
+            log.warn("Qualité {}-{} inatteignable pour {}: image conservée sans perte", minQuality, maxQuality, name);
+            losslessEncoder.encode(argb, width, height, out);
+            return;
+        }
+
+        encoder.encodeIndexed(indexed, out);
+
+        log.info("Compression réussie pour {}: {} couleurs, qualité {}",
+                name, indexed.palette().length, indexed.quality());
+    }
+}
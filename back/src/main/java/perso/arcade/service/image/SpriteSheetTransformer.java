@@ -0,0 +1,245 @@
+package perso.arcade.service.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.*;
+import java.util.Arrays;
+
+/**
+ * Recadrage, miroir et réduction des planches de sprites directement sur des tableaux ARGB : copies ligne par ligne
+ * ({@link System#arraycopy}) et tampons réutilisés via {@link IntBufferPool}.
+ */
+@Component
+public class SpriteSheetTransformer {
+
+    private final IntBufferPool pool;
+
+    public SpriteSheetTransformer(@Value("${sprite.transform.pool-size:4}") int poolSize,
+                                  @Value("${sprite.transform.max-pooled-pixels:4194304}") int maxPooledPixels) {
+        this.pool = new IntBufferPool(poolSize, maxPooledPixels);
+    }
+
+    /**
+     * Copie l'image dans une planche ARGB issue de la réserve.
+     */
+    public PixelSheet load(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = pool.acquire(width * height);
+
+        if (!copyAbgrBytes(image, pixels)) {
+            image.getRGB(0, 0, width, height, pixels, 0, width);
+        }
+
+        return new PixelSheet(pixels, width, height, pool);
+    }
+
+    /**
+     * Planche transparente issue de la réserve.
+     */
+    public PixelSheet allocate(int width, int height) {
+        int[] pixels = pool.acquire(width * height);
+        Arrays.fill(pixels, 0, width * height, 0);
+        return new PixelSheet(pixels, width, height, pool);
+    }
+
+    /**
+     * Copie un rectangle d'une planche à l'autre, ligne par ligne.
+     */
+    public void copyRect(PixelSheet source, int srcX, int srcY, PixelSheet target, int dstX, int dstY,
+                         int width, int height) {
+        int[] src = source.pixels();
+        int[] dst = target.pixels();
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(src, (srcY + y) * source.width() + srcX, dst, (dstY + y) * target.width() + dstX, width);
+        }
+    }
+
+    public void clearRect(PixelSheet target, int x, int y, int width, int height) {
+        int[] dst = target.pixels();
+        for (int row = y; row < y + height; row++) {
+            int start = row * target.width() + x;
+            Arrays.fill(dst, start, start + width, 0);
+        }
+    }
+
+    /**
+     * Extrait le rectangle {@code bounds} de chaque frame et les aligne côte à côte.
+     */
+    public PixelSheet crop(PixelSheet source, int frameCount, Bounds bounds) {
+        int frameWidth = source.width() / frameCount;
+        int cropWidth = bounds.width();
+        int cropHeight = bounds.height();
+        int outWidth = frameCount * cropWidth;
+
+        int[] src = source.pixels();
+        int[] dst = pool.acquire(outWidth * cropHeight);
+
+        for (int y = 0; y < cropHeight; y++) {
+            int srcRow = (bounds.minY() + y) * source.width() + bounds.minX();
+            int dstRow = y * outWidth;
+            for (int i = 0; i < frameCount; i++) {
+                System.arraycopy(src, srcRow + i * frameWidth, dst, dstRow + i * cropWidth, cropWidth);
+            }
+        }
+
+        return new PixelSheet(dst, outWidth, cropHeight, pool);
+    }
+
+    /**
+     * Miroir horizontal de chaque frame, sur place. Les colonnes au-delà de la dernière frame sont vidées comme
+     * le faisait l'ancien rendu Graphics2D.
+     */
+    public void flipFrames(PixelSheet sheet, int frameCount) {
+        int width = sheet.width();
+        int frameWidth = width / frameCount;
+        int used = frameCount * frameWidth;
+        int[] pixels = sheet.pixels();
+
+        for (int y = 0; y < sheet.height(); y++) {
+            int row = y * width;
+            for (int i = 0; i < frameCount; i++) {
+                int left = row + i * frameWidth;
+                int right = left + frameWidth - 1;
+                while (left < right) {
+                    int tmp = pixels[left];
+                    pixels[left++] = pixels[right];
+                    pixels[right--] = tmp;
+                }
+            }
+            if (used < width) {
+                Arrays.fill(pixels, row + used, row + width, 0);
+            }
+        }
+    }
+
+    /**
+     * Réduit chaque frame à {@code targetFrameWidth} × {@code targetHeight} par moyenne des surfaces couvertes
+     * (couleurs prémultipliées par l'alpha pour ne pas assombrir les bords). Les frames restent alignées côte à côte.
+     */
+    public PixelSheet downscale(PixelSheet source, int frameCount, int targetFrameWidth, int targetHeight) {
+        int frameWidth = source.width() / frameCount;
+        int usedWidth = frameCount * frameWidth;
+        int outWidth = frameCount * targetFrameWidth;
+        AreaFilter columns = AreaFilter.of(frameWidth, targetFrameWidth);
+        AreaFilter rows = AreaFilter.of(source.height(), targetHeight);
+
+        int[] src = source.pixels();
+        int[] dst = pool.acquire(outWidth * targetHeight);
+        float[] line = new float[usedWidth * 4];
+
+        for (int y = 0; y < targetHeight; y++) {
+            Arrays.fill(line, 0f);
+            float[] rowWeights = rows.weights()[y];
+
+            for (int k = 0; k < rowWeights.length; k++) {
+                int row = (rows.start()[y] + k) * source.width();
+                for (int x = 0; x < usedWidth; x++) {
+                    int argb = src[row + x];
+                    int alpha = argb >>> 24;
+                    if (alpha == 0) {
+                        continue;
+                    }
+                    float weight = rowWeights[k];
+                    float premultiplied = alpha * weight / 255f;
+                    int i = x * 4;
+                    line[i] += alpha * weight;
+                    line[i + 1] += ((argb >> 16) & 0xff) * premultiplied;
+                    line[i + 2] += ((argb >> 8) & 0xff) * premultiplied;
+                    line[i + 3] += (argb & 0xff) * premultiplied;
+                }
+            }
+
+            int out = y * outWidth;
+            for (int frame = 0; frame < frameCount; frame++) {
+                int frameStart = frame * frameWidth;
+                for (int x = 0; x < targetFrameWidth; x++) {
+                    float[] columnWeights = columns.weights()[x];
+                    int first = (frameStart + columns.start()[x]) * 4;
+                    float a = 0, r = 0, g = 0, b = 0;
+                    for (int k = 0; k < columnWeights.length; k++) {
+                        int i = first + k * 4;
+                        float weight = columnWeights[k];
+                        a += line[i] * weight;
+                        r += line[i + 1] * weight;
+                        g += line[i + 2] * weight;
+                        b += line[i + 3] * weight;
+                    }
+                    dst[out++] = unpremultiply(a, r, g, b);
+                }
+            }
+        }
+
+        return new PixelSheet(dst, outWidth, targetHeight, pool);
+    }
+
+    private static int unpremultiply(float a, float r, float g, float b) {
+        int alpha = Math.round(a);
+        if (alpha <= 0) {
+            return 0;
+        }
+        float factor = 255f / a;
+        return Math.min(alpha, 255) << 24
+                | Math.min(Math.round(r * factor), 255) << 16
+                | Math.min(Math.round(g * factor), 255) << 8
+                | Math.min(Math.round(b * factor), 255);
+    }
+
+    /**
+     * Chemin rapide pour le format produit par le décodeur PNG (RGBA 8 bits, {@code TYPE_4BYTE_ABGR}).
+     */
+    private boolean copyAbgrBytes(BufferedImage image, int[] pixels) {
+        if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR
+                || !(image.getRaster().getDataBuffer() instanceof DataBufferByte buffer)
+                || !(image.getSampleModel() instanceof PixelInterleavedSampleModel sampleModel)
+                || image.getRaster().getSampleModelTranslateX() != 0
+                || image.getRaster().getSampleModelTranslateY() != 0) {
+            return false;
+        }
+
+        byte[] data = buffer.getData();
+        int[] offsets = sampleModel.getBandOffsets();
+        int stride = sampleModel.getScanlineStride();
+        int pixelStride = sampleModel.getPixelStride();
+        int base = buffer.getOffset();
+        int width = image.getWidth();
+
+        for (int y = 0; y < image.getHeight(); y++) {
+            int in = base + y * stride;
+            int out = y * width;
+            for (int x = 0; x < width; x++, in += pixelStride) {
+                pixels[out + x] = (data[in + offsets[3]] & 0xff) << 24
+                        | (data[in + offsets[0]] & 0xff) << 16
+                        | (data[in + offsets[1]] & 0xff) << 8
+                        | (data[in + offsets[2]] & 0xff);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pour chaque pixel cible, premier pixel source couvert et part de chaque pixel source dans la moyenne.
+     */
+    private record AreaFilter(int[] start, float[][] weights) {
+        static AreaFilter of(int sourceLength, int targetLength) {
+            double scale = (double) sourceLength / targetLength;
+            int[] start = new int[targetLength];
+            float[][] weights = new float[targetLength][];
+
+            for (int i = 0; i < targetLength; i++) {
+                double from = i * scale;
+                double to = Math.min(sourceLength, (i + 1) * scale);
+                int first = (int) Math.floor(from);
+                int last = Math.min(sourceLength, (int) Math.ceil(to));
+
+                start[i] = first;
+                weights[i] = new float[last - first];
+                for (int j = first; j < last; j++) {
+                    weights[i][j - first] = (float) ((Math.min(j + 1, to) - Math.max(j, from)) / scale);
+                }
+            }
+            return new AreaFilter(start, weights);
+        }
+    }
+}
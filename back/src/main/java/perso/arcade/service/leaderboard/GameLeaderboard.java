@@ -0,0 +1,210 @@
+package perso.arcade.service.leaderboard;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Classement d'un jeu en mémoire : meilleur score de chaque joueur, trié selon {@code lowerIsBetter}, à égalité par
+ * identifiant de record. Le score affiché est formaté une seule fois, à l'insertion.
+ */
+public class GameLeaderboard {
+
+    private final long gameId;
+    private final boolean lowerIsBetter;
+    private final RankedIndex<Entry> index;
+    private final Map<Long, Entry> byPlayer = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GameLeaderboard(long gameId, boolean lowerIsBetter) {
+        this.gameId = gameId;
+        this.lowerIsBetter = lowerIsBetter;
+        Comparator<Entry> byScore = Comparator.comparingLong(Entry::score);
+        this.index = new RankedIndex<>((lowerIsBetter ? byScore : byScore.reversed())
+                .thenComparingLong(Entry::recordId));
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+
+    public boolean isLowerIsBetter() {
+        return lowerIsBetter;
+    }
+
+    /**
+     * Ne remplace l'entrée du joueur que si le score est meilleur : un appel en retard ne peut pas faire régresser le
+     * classement. Retourne le déplacement du joueur, ou {@code null} si le classement n'a pas changé.
+     */
+    public RankChange offer(long playerId, String pseudo, long score, long recordId) {
+        return submit(playerId, pseudo, score, () -> recordId);
+    }
+
+    /**
+     * Comme {@link #offer}, pour un score pas encore enregistré : le joueur déjà classé garde son identifiant de
+     * record (la ligne sera mise à jour), sinon {@code newRecordId} en fournit un.
+     */
+    public RankChange submit(long playerId, String pseudo, long score, LongSupplier newRecordId) {
+        lock.writeLock().lock();
+        try {
+            Entry current = byPlayer.get(playerId);
+            if (current != null && !isBetter(score, current.score())) {
+                return null;
+            }
+            int oldRank = 0;
+            long recordId;
+            if (current != null) {
+                oldRank = index.rankOf(current);
+                index.remove(current);
+                recordId = current.recordId();
+            } else {
+                recordId = newRecordId.getAsLong();
+            }
+
+            Entry entry = new Entry(playerId, pseudo, score, recordId, format(score));
+            index.insert(entry);
+            byPlayer.put(playerId, entry);
+            return new RankChange(entry, oldRank, index.rankOf(entry));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remplace l'identifiant de record du joueur, provisoire tant que la ligne n'est pas insérée, par celui de la
+     * base. Sans effet si le joueur n'est pas classé ou si son score a changé depuis l'écriture.
+     */
+    public boolean rekey(long playerId, long score, long recordId) {
+        lock.writeLock().lock();
+        try {
+            Entry current = byPlayer.get(playerId);
+            if (current == null || current.score() != score || current.recordId() == recordId) {
+                return false;
+            }
+            index.remove(current);
+            Entry entry = new Entry(playerId, current.pseudo(), score, recordId, current.displayScore());
+            index.insert(entry);
+            byPlayer.put(playerId, entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Au plus {@code count} entrées à partir du rang {@code fromRank} (à partir de 1).
+     */
+    public List<RankedEntry> range(int fromRank, int count) {
+        lock.readLock().lock();
+        try {
+            return ranked(fromRank, index.range(fromRank, count));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Au plus {@code count} entrées classées après le curseur (score, identifiant de record). Le curseur reste valide
+     * si son entrée a été remplacée entre deux pages.
+     */
+    public List<RankedEntry> after(long score, long recordId, int count) {
+        lock.readLock().lock();
+        try {
+            int from = index.countUpTo(new Entry(0, null, score, recordId, null)) + 1;
+            return ranked(from, index.range(from, count));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rang du joueur à partir de 1, 0 s'il n'est pas classé.
+     */
+    public int rankOf(long playerId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byPlayer.get(playerId);
+            return entry != null ? index.rankOf(entry) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entrée et rang actuels du joueur, {@code null} s'il n'est pas classé.
+     */
+    public RankedEntry find(long playerId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byPlayer.get(playerId);
+            return entry != null ? new RankedEntry(index.rankOf(entry), entry) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Le joueur et jusqu'à {@code radius} voisins de chaque côté ; vide s'il n'est pas classé.
+     */
+    public List<RankedEntry> around(long playerId, int radius) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byPlayer.get(playerId);
+            if (entry == null) {
+                return List.of();
+            }
+            int rank = index.rankOf(entry);
+            radius = Math.max(0, Math.min(radius, index.size()));
+            int from = Math.max(1, rank - radius);
+            return ranked(from, index.range(from, rank - from + radius + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<RankedEntry> ranked(int fromRank, List<Entry> entries) {
+        List<RankedEntry> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(new RankedEntry(fromRank + i, entries.get(i)));
+        }
+        return result;
+    }
+
+    private boolean isBetter(long score, long current) {
+        return lowerIsBetter ? score < current : score > current;
+    }
+
+    /**
+     * Les jeux chronométrés stockent des millisecondes.
+     */
+    private String format(long score) {
+        if (!lowerIsBetter) {
+            return String.valueOf(score);
+        }
+        long minutes = score / 60000;
+        long seconds = (score % 60000) / 1000;
+        return minutes + "m" + (seconds < 10 ? "0" : "") + seconds + "s";
+    }
+
+    public record Entry(long playerId, String pseudo, long score, long recordId, String displayScore) {
+    }
+
+    public record RankedEntry(int rank, Entry entry) {
+    }
+
+    /**
+     * {@code oldRank} vaut 0 pour une première entrée.
+     */
+    public record RankChange(Entry entry, int oldRank, int newRank) {
+    }
+}
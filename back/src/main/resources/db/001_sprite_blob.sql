@@ -0,0 +1,17 @@
+-- Stockage des planches par contenu (SpriteBlob, Animation.blobHash).
+-- Le schéma est géré hors de l'application : à appliquer avant de déployer cette version.
+-- Les planches encore rangées en {sprite}/{TYPE}/{n}.png sont migrées au démarrage (SpriteBlobMigration).
+
+CREATE TABLE IF NOT EXISTS sprite_blob
+(
+    hash        VARCHAR(64) PRIMARY KEY,
+    size        BIGINT      NOT NULL,
+    ref_count   INTEGER     NOT NULL,
+    released_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+-- Ramasse-miettes : blobs sans référence depuis le délai de grâce
+CREATE INDEX IF NOT EXISTS idx_sprite_blob_collectable ON sprite_blob (released_at) WHERE ref_count <= 0;
+
+ALTER TABLE animation
+    ADD COLUMN IF NOT EXISTS blob_hash VARCHAR(64);
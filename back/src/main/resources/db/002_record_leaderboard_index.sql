@@ -0,0 +1,5 @@
+-- Classements paginés par curseur (score, id) et chargement initial de LeaderboardStore.
+-- Le schéma est géré hors de l'application : à appliquer avant de déployer cette version.
+-- Sur une base en service, préférer CREATE INDEX CONCURRENTLY hors transaction pour ne pas bloquer les écritures.
+
+CREATE INDEX IF NOT EXISTS idx_record_game_score_id ON record (game_id, score, id);
@@ -0,0 +1,28 @@
+-- Cible de l'upsert des records (RecordRepositoryImpl) : un seul record par joueur et par jeu.
+-- Le schéma est géré hors de l'application : à appliquer avant de déployer cette version.
+-- Les doublons existants sont supprimés en gardant le meilleur score selon game.lower_is_better, à égalité le plus
+-- ancien record. Rejouable : la contrainte n'est ajoutée que si elle manque.
+
+DELETE
+FROM record r
+    USING (SELECT rec.id,
+                  row_number() OVER (
+                      PARTITION BY rec.player_id, rec.game_id
+                      ORDER BY CASE WHEN g.lower_is_better THEN rec.score END ASC NULLS LAST,
+                          CASE WHEN NOT g.lower_is_better THEN rec.score END DESC NULLS LAST,
+                          rec.id
+                      ) AS position
+           FROM record rec
+                    JOIN game g ON g.id = rec.game_id) ranked
+WHERE r.id = ranked.id
+  AND ranked.position > 1;
+
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_record_player_game') THEN
+            ALTER TABLE record
+                ADD CONSTRAINT uk_record_player_game UNIQUE (player_id, game_id);
+        END IF;
+    END
+$$;
@@ -0,0 +1,35 @@
+package perso.arcade;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.regex.Pattern;
+
+/**
+ * Lance les benchmarks JMH d'une classe depuis JUnit ({@code mvn test -Pbenchmark}).
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void run(Class<?> benchmark, String... excludedMethods) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName()) + "\\.");
+        for (String method : excludedMethods) {
+            options.exclude(Pattern.quote(benchmark.getName() + "." + method) + "$");
+        }
+        new Runner(options
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .shouldFailOnError(true)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,161 @@
+package perso.arcade;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Timeout(10)
+class ShardedExecutorTest {
+
+    @Test
+    void messagesOfTheSameKeyRunInOrder() throws InterruptedException {
+        ShardedExecutor executor = new ShardedExecutor("test", 4, 10_000, 1_000, Message::getPayload);
+        Map<Object, List<Integer>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(2_000);
+
+        for (int i = 0; i < 2_000; i++) {
+            int sequence = i;
+            String key = "session-" + (i % 10);
+            executor.execute(task(key, () -> {
+                seen.computeIfAbsent(key, k -> new ArrayList<>()).add(sequence);
+                done.countDown();
+            }));
+        }
+        done.await();
+        executor.shutdown();
+
+        assertThat(seen.size()).isEqualTo(10);
+        seen.values().forEach(sequences -> {
+            for (int i = 1; i < sequences.size(); i++) {
+                assertThat(sequences.get(i)).isGreaterThan(sequences.get(i - 1));
+            }
+        });
+    }
+
+    @Test
+    void fullBrokerShardMakesTheSenderWaitWithoutLosingBroadcasts() throws InterruptedException {
+        ShardedExecutor executor = new ShardedExecutor("test", 1, 2, 10_000, Message::getPayload);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(5);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+
+        executor.execute(task("/topic/chat", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        started.await();
+        Thread sender = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                int sequence = i;
+                executor.execute(task("/topic/chat", () -> {
+                    order.add(sequence);
+                    delivered.countDown();
+                }));
+            }
+        });
+        sender.start();
+
+        // File pleine : l'émetteur attend une place au lieu de jeter la diffusion
+        awaitBlocked(sender);
+        assertThat(order).isEmpty();
+        release.countDown();
+        delivered.await();
+        sender.join();
+        executor.shutdown();
+
+        assertThat(order).containsExactly(0, 1, 2, 3, 4);
+        assertThat(executor.callerRuns()).isZero();
+    }
+
+    @Test
+    void senderRunsTheTaskItselfPastTheOfferTimeout() throws InterruptedException {
+        ShardedExecutor executor = new ShardedExecutor("test", 1, 2, 20, Message::getPayload);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(5);
+        AtomicInteger ranBySender = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+
+        executor.execute(task("k", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        started.await();
+        for (int i = 0; i < 5; i++) {
+            executor.execute(task("k", () -> {
+                if (Thread.currentThread() == caller) {
+                    ranBySender.incrementAndGet();
+                }
+                delivered.countDown();
+            }));
+        }
+
+        assertThat(ranBySender.get()).isEqualTo(3);
+        assertThat(executor.callerRuns()).isEqualTo(3L);
+        release.countDown();
+        delivered.await();
+        executor.shutdown();
+    }
+
+    @Test
+    void tasksWithoutMessageAreAccepted() throws InterruptedException {
+        ShardedExecutor executor = new ShardedExecutor("test", 3, 10, 1_000, Message::getPayload);
+        CountDownLatch done = new CountDownLatch(3);
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute(done::countDown);
+        }
+
+        done.await();
+        executor.shutdown();
+        assertThat(executor.callerRuns()).isZero();
+    }
+
+    private static MessageHandlingRunnable task(String key, Runnable body) {
+        Message<String> message = new GenericMessage<>(key);
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return null;
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
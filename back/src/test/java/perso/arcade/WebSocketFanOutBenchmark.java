@@ -0,0 +1,130 @@
+package perso.arcade;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffusion d'un message de chat à 5 000 abonnés de /topic/chat à travers le broker simple, jusqu'à l'encodage de la
+ * frame STOMP de chaque session. {@code shards = 0} : canaux sans exécuteur, tout se fait dans le thread appelant ;
+ * sinon les canaux broker et sortant utilisent des {@link ShardedExecutor} comme en production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WebSocketFanOutBenchmark {
+
+    private static final int SUBSCRIBERS = 5_000;
+    private static final String DESTINATION = "/topic/chat";
+
+    @Param({"0", "1", "8"})
+    public int shards;
+
+    private final StompEncoder encoder = new StompEncoder();
+    private ShardedExecutor brokerExecutor;
+    private ShardedExecutor outboundExecutor;
+    private ExecutorSubscribableChannel brokerChannel;
+    private SimpleBrokerMessageHandler broker;
+    private Message<byte[]> chat;
+    private volatile CountDownLatch delivered;
+    private int lastFrameSize;
+
+    @Setup
+    public void setUp() {
+        ExecutorSubscribableChannel outboundChannel;
+        if (shards > 0) {
+            // Files assez grandes pour que l'émetteur n'attende jamais : seule la diffusion est mesurée
+            brokerExecutor = new ShardedExecutor("bench-broker", shards, 2 * SUBSCRIBERS, 1000,
+                    message -> SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            outboundExecutor = new ShardedExecutor("bench-outbound", shards, 2 * SUBSCRIBERS, 1000,
+                    message -> SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+            brokerChannel = new ExecutorSubscribableChannel(brokerExecutor);
+            outboundChannel = new ExecutorSubscribableChannel(outboundExecutor);
+        } else {
+            brokerChannel = new ExecutorSubscribableChannel();
+            outboundChannel = new ExecutorSubscribableChannel();
+        }
+        outboundChannel.subscribe(this::deliver);
+
+        broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), outboundChannel, brokerChannel,
+                List.of("/topic"));
+        broker.setHeartbeatValue(new long[]{0, 0});
+        broker.start();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            // Le broker ne sert que les sessions connectées
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("session-" + i);
+            connect.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[]{0, 0});
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + i);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        }
+
+        SimpMessageHeaderAccessor send = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        send.setDestination(DESTINATION);
+        chat = MessageBuilder.createMessage(
+                "{\"pseudo\":\"bench\",\"message\":\"salut tout le monde\"}".getBytes(StandardCharsets.UTF_8),
+                send.getMessageHeaders());
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+        if (shards > 0) {
+            brokerExecutor.shutdown();
+            outboundExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int broadcast() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(SUBSCRIBERS);
+        delivered = latch;
+        brokerChannel.send(chat);
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(latch.getCount() + " abonnés non servis");
+        }
+        return lastFrameSize;
+    }
+
+    /**
+     * Ce que fait StompSubProtocolHandler pour chaque session, sans l'écriture réseau. Les CONNECT_ACK de la mise en
+     * place sont ignorés.
+     */
+    private void deliver(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        accessor.setSubscriptionId(SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()));
+        accessor.setNativeHeader("message-id", SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        lastFrameSize = encoder.encode(accessor.getMessageHeaders(), (byte[]) message.getPayload()).length;
+        delivered.countDown();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() throws RunnerException {
+        Benchmarks.run(WebSocketFanOutBenchmark.class);
+    }
+}
@@ -0,0 +1,177 @@
+package perso.arcade.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import perso.arcade.model.dto.RecordUpsert;
+import perso.arcade.model.dto.StoredRecord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upsert et scripts de db/ contre un vrai Postgres ; ignoré sans Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RecordRepositoryImplTest {
+
+    private static final long HIGHER_IS_BETTER = 1;
+    private static final long LOWER_IS_BETTER = 2;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbc;
+    private static RecordRepositoryImpl repository;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(16);
+        jdbc = new JdbcTemplate(dataSource);
+        repository = new RecordRepositoryImpl(jdbc);
+
+        jdbc.execute("""
+                CREATE TABLE game (id BIGSERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE,
+                                   lower_is_better BOOLEAN NOT NULL);
+                CREATE TABLE player (id BIGSERIAL PRIMARY KEY, pseudo VARCHAR(255) NOT NULL UNIQUE,
+                                     password VARCHAR(255) NOT NULL);
+                CREATE TABLE record (id BIGSERIAL PRIMARY KEY, score BIGINT, record_date TIMESTAMP(6) NOT NULL,
+                                     player_id BIGINT REFERENCES player, game_id BIGINT REFERENCES game);
+                INSERT INTO game (id, name, lower_is_better) VALUES (1, 'snake', FALSE), (2, 'labyrinthe', TRUE);
+                INSERT INTO player (pseudo, password) SELECT 'p' || n, '' FROM generate_series(1, 200) n;
+                """);
+
+        // Doublons d'avant la contrainte : le script doit garder 30, le premier 300 et 5
+        jdbc.execute("""
+                INSERT INTO record (player_id, game_id, score, record_date) VALUES
+                    (1, 1, 10, now()), (1, 1, 30, now()), (1, 1, 20, now()),
+                    (1, 2, 500, now()), (1, 2, 300, now()), (1, 2, 300, now()),
+                    (2, 1, NULL, now()), (2, 1, 5, now());
+                """);
+        migrate();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        dataSource.close();
+    }
+
+    private static void migrate() throws IOException {
+        for (String script : List.of("db/002_record_leaderboard_index.sql", "db/003_record_player_game_unique.sql")) {
+            jdbc.execute(new ClassPathResource(script).getContentAsString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void migrationKeepsTheBestDuplicate() throws IOException {
+        // Rejouer les scripts ne doit rien changer
+        migrate();
+
+        assertThat(jdbc.queryForList("SELECT score FROM record WHERE player_id = 1 ORDER BY game_id", Long.class))
+                .containsExactly(30L, 300L);
+        assertThat(jdbc.queryForObject("SELECT id FROM record WHERE player_id = 1 AND game_id = 2", Long.class))
+                .isEqualTo(5L);
+        assertThat(jdbc.queryForList("SELECT score FROM record WHERE player_id = 2", Long.class))
+                .containsExactly(5L);
+    }
+
+    @Test
+    void upsertReturnsTheStoredBest() {
+        List<StoredRecord> first = repository.upsertBest(List.of(upsert(50, HIGHER_IS_BETTER, 100),
+                upsert(50, LOWER_IS_BETTER, 9_000)));
+        List<StoredRecord> second = repository.upsertBest(List.of(upsert(50, HIGHER_IS_BETTER, 80),
+                upsert(50, LOWER_IS_BETTER, 7_000)));
+
+        assertThat(first).extracting(StoredRecord::score).containsExactly(100L, 9_000L);
+        assertThat(second).extracting(StoredRecord::score).containsExactly(100L, 7_000L);
+        assertThat(second).extracting(StoredRecord::id)
+                .containsExactlyElementsOf(first.stream().map(StoredRecord::id).toList());
+    }
+
+    /**
+     * Des centaines de lots concurrents sur les mêmes lignes, dans un ordre différent à chaque lot : aucune mise à jour
+     * perdue, aucun interblocage, et chaque ligne renvoyée est au moins aussi bonne que le score soumis.
+     */
+    @Test
+    void concurrentUpsertsKeepTheBestScore() throws Exception {
+        int players = 40;
+        int batches = 600;
+        Map<List<Long>, Long> best = new ConcurrentHashMap<>();
+        List<Runnable> tasks = new ArrayList<>(batches);
+        SplittableRandom random = new SplittableRandom(20);
+
+        for (int b = 0; b < batches; b++) {
+            long game = b % 2 == 0 ? HIGHER_IS_BETTER : LOWER_IS_BETTER;
+            List<Long> ids = new ArrayList<>();
+            for (long player = 100; player < 100 + players; player++) {
+                ids.add(player);
+            }
+            Collections.shuffle(ids, new Random(random.nextLong()));
+
+            List<RecordUpsert> batch = new ArrayList<>();
+            for (long player : ids.subList(0, 1 + random.nextInt(players))) {
+                long score = 1 + random.nextInt(1_000_000);
+                batch.add(upsert(player, game, score));
+                best.merge(List.of(player, game), score, game == LOWER_IS_BETTER ? Math::min : Math::max);
+            }
+            tasks.add(() -> {
+                for (StoredRecord stored : repository.upsertBest(batch)) {
+                    RecordUpsert submitted = batch.stream()
+                            .filter(record -> record.playerId() == stored.playerId())
+                            .findFirst()
+                            .orElseThrow();
+                    assertThat(submitted.lowerIsBetter()
+                            ? stored.score() <= submitted.score()
+                            : stored.score() >= submitted.score()).isTrue();
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Map.Entry<List<Long>, Long> expected : best.entrySet()) {
+            List<Long> scores = jdbc.queryForList("SELECT score FROM record WHERE player_id = ? AND game_id = ?",
+                    Long.class, expected.getKey().get(0), expected.getKey().get(1));
+            assertThat(scores).containsExactly(expected.getValue());
+        }
+    }
+
+    private static RecordUpsert upsert(long playerId, long gameId, long score) {
+        return new RecordUpsert(playerId, gameId, score, gameId == LOWER_IS_BETTER, LocalDateTime.now());
+    }
+}
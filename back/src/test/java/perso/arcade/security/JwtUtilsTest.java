@@ -0,0 +1,142 @@
+package perso.arcade.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import perso.arcade.exception.JwtAuthenticationException;
+import perso.arcade.model.CustomUserDetails;
+import perso.arcade.model.entities.Player;
+import perso.arcade.service.PlayerService;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTest {
+
+    private static final String SECRET =
+            "SecretDeTestAssezLongPourHS512AvecPlusDeSoixanteQuatreCaracteresDansLaChaine";
+    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    private final PlayerService playerService = Mockito.mock(PlayerService.class);
+
+    private JwtUtils jwtUtils(int expirationMs) {
+        return new JwtUtils(playerService, SECRET, expirationMs, 100, 300);
+    }
+
+    @Test
+    void tokenWithClaimsNeedsNoLookup() {
+        JwtUtils jwtUtils = jwtUtils(60_000);
+        String token = jwtUtils.generateJwtToken(login(new Player(42L, "alice", "hash")));
+
+        UsernamePasswordAuthenticationToken authentication = jwtUtils.getAuthenticationFromToken(token);
+
+        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo("alice");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+        Mockito.verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void legacyTokenWithoutPlayerIdIsResolvedByPseudoOnce() {
+        JwtUtils jwtUtils = jwtUtils(60_000);
+        Mockito.when(playerService.loadAuthenticatedUser("bob"))
+                .thenReturn(new CustomUserDetails(new Player(7L, "bob", "hash")));
+        String token = Jwts.builder()
+                .subject("bob")
+                .issuedAt(new Date())
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(KEY)
+                .compact();
+
+        UsernamePasswordAuthenticationToken first = jwtUtils.getAuthenticationFromToken(token);
+        UsernamePasswordAuthenticationToken second = jwtUtils.getAuthenticationFromToken(token);
+
+        assertThat(((CustomUserDetails) first.getPrincipal()).getId()).isEqualTo(7L);
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+        Mockito.verify(playerService, Mockito.times(1)).loadAuthenticatedUser("bob");
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        JwtUtils jwtUtils = jwtUtils(60_000);
+        String token = jwtUtils.generateJwtToken(login(new Player(42L, "alice", "hash")));
+        String[] parts = token.split("\\.");
+        String forged = Jwts.builder()
+                .subject("mallory")
+                .claim("pid", 1L)
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(KEY)
+                .compact()
+                .split("\\.")[1];
+
+        assertRejected(jwtUtils, parts[0] + "." + forged + "." + parts[2]);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtUtils jwtUtils = jwtUtils(60_000);
+        String token = new JwtUtils(playerService, SECRET.replace('S', 'Z'), 60_000, 100, 300)
+                .generateJwtToken(login(new Player(42L, "alice", "hash")));
+
+        assertRejected(jwtUtils, token);
+    }
+
+    @Test
+    void malformedOrMissingTokenIsRejected() {
+        JwtUtils jwtUtils = jwtUtils(60_000);
+
+        assertRejected(jwtUtils, "pas-un-jeton");
+        assertRejected(jwtUtils, "");
+        assertRejected(jwtUtils, null);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtUtils jwtUtils = jwtUtils(60_000);
+        String token = Jwts.builder()
+                .subject("alice")
+                .claim("pid", 42L)
+                .expiration(Date.from(Instant.now().minusSeconds(1)))
+                .signWith(KEY)
+                .compact();
+
+        assertRejected(jwtUtils, token);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws InterruptedException {
+        // Expiration à la seconde près : le jeton vit entre 1 et 2 s
+        JwtUtils jwtUtils = jwtUtils(2_000);
+        String token = jwtUtils.generateJwtToken(login(new Player(42L, "alice", "hash")));
+        assertThat(jwtUtils.getAuthenticationFromToken(token)).isNotNull();
+
+        Thread.sleep(2_100);
+
+        assertRejected(jwtUtils, token);
+        assertRejected(jwtUtils, token);
+    }
+
+    private static UsernamePasswordAuthenticationToken login(Player player) {
+        CustomUserDetails details = new CustomUserDetails(player);
+        return new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+    }
+
+    private static void assertRejected(JwtUtils jwtUtils, String token) {
+        assertThatThrownBy(() -> jwtUtils.getAuthenticationFromToken(token))
+                .isInstanceOf(JwtAuthenticationException.class)
+                .hasMessage("INVALID_OR_EXPIRED_TOKEN");
+    }
+}
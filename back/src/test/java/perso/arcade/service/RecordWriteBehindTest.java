@@ -0,0 +1,130 @@
+package perso.arcade.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import perso.arcade.model.dto.PlayerRef;
+import perso.arcade.model.dto.RecordUpsert;
+import perso.arcade.model.dto.StoredRecord;
+import perso.arcade.repository.RecordRepository;
+import perso.arcade.service.leaderboard.GameLeaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordWriteBehindTest {
+
+    private final GameLeaderboard board = new GameLeaderboard(1, false);
+    private final List<List<RecordUpsert>> calls = new ArrayList<>();
+    private int failures;
+
+    /**
+     * Dépôt dont les {@code failures} prochains upserts échouent.
+     */
+    private final RecordRepository repository = Mockito.mock(RecordRepository.class, invocation -> {
+        List<RecordUpsert> records = invocation.getArgument(0);
+        calls.add(records);
+        if (failures > 0) {
+            failures--;
+            throw new IllegalStateException("base indisponible");
+        }
+        return records.stream()
+                .map(record -> new StoredRecord(calls.size(), record.playerId(), record.gameId(), record.score()))
+                .toList();
+    });
+
+    private RecordWriteBehind writeBehind(int capacity, int alertAfterAttempts, long retryDelayMs) {
+        return new RecordWriteBehind(repository, new LeaderboardStore(null, 1), capacity, 10, 0, alertAfterAttempts,
+                retryDelayMs, retryDelayMs);
+    }
+
+    @Test
+    void mergesSubmissionsOfTheSamePlayer() {
+        RecordWriteBehind writeBehind = writeBehind(10, 3, 0);
+        writeBehind.submit(board, new PlayerRef(1, "a"), 10);
+        writeBehind.submit(board, new PlayerRef(1, "a"), 30);
+        writeBehind.submit(board, new PlayerRef(2, "b"), 20);
+
+        writeBehind.flush();
+
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).extracting(RecordUpsert::score).containsExactly(30L, 20L);
+    }
+
+    @Test
+    void failedBatchKeepsItsCapacityUntilWritten() {
+        RecordWriteBehind writeBehind = writeBehind(1, 5, 0);
+        failures = 2;
+        writeBehind.submit(board, new PlayerRef(1, "a"), 10);
+
+        writeBehind.flush();
+        writeBehind.flush();
+        assertThatThrownBy(() -> writeBehind.submit(board, new PlayerRef(2, "b"), 20))
+                .isInstanceOf(IllegalStateException.class);
+
+        writeBehind.flush();
+        assertThat(calls).hasSize(3);
+        assertThat(calls.get(2)).extracting(RecordUpsert::playerId).containsExactly(1L);
+        assertThat(writeBehind.submit(board, new PlayerRef(2, "b"), 20)).isNotNull();
+    }
+
+    @Test
+    void retriesOnlyAfterTheBackoffDelay() {
+        RecordWriteBehind writeBehind = writeBehind(10, 5, 60_000);
+        failures = 1;
+        writeBehind.submit(board, new PlayerRef(1, "a"), 10);
+
+        writeBehind.flush();
+        writeBehind.submit(board, new PlayerRef(2, "b"), 20);
+        writeBehind.flush();
+
+        assertThat(calls).hasSize(1);
+    }
+
+    @Test
+    void failedBatchIsWrittenBeforeTheQueue() {
+        RecordWriteBehind writeBehind = writeBehind(10, 5, 0);
+        failures = 1;
+        writeBehind.submit(board, new PlayerRef(1, "a"), 10);
+        writeBehind.flush();
+
+        writeBehind.submit(board, new PlayerRef(2, "b"), 20);
+        writeBehind.flush();
+
+        assertThat(calls).hasSize(3);
+        assertThat(calls.get(1)).extracting(RecordUpsert::playerId).containsExactly(1L);
+        assertThat(calls.get(2)).extracting(RecordUpsert::playerId).containsExactly(2L);
+    }
+
+    @Test
+    void batchIsKeptPastTheAlertThresholdUntilWritten() {
+        RecordWriteBehind writeBehind = writeBehind(1, 2, 0);
+        failures = 5;
+        writeBehind.submit(board, new PlayerRef(1, "a"), 10);
+
+        for (int i = 0; i < 5; i++) {
+            writeBehind.flush();
+            assertThatThrownBy(() -> writeBehind.submit(board, new PlayerRef(2, "b"), 20))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        writeBehind.flush();
+
+        assertThat(calls).hasSize(6);
+        assertThat(calls.get(5)).extracting(RecordUpsert::playerId).containsExactly(1L);
+        assertThat(writeBehind.submit(board, new PlayerRef(2, "b"), 20)).isNotNull();
+    }
+
+    @Test
+    void shutdownRetriesWithoutWaiting() {
+        RecordWriteBehind writeBehind = writeBehind(10, 5, 60_000);
+        failures = 1;
+        writeBehind.submit(board, new PlayerRef(1, "a"), 10);
+        writeBehind.flush();
+
+        writeBehind.shutdown();
+
+        assertThat(calls).hasSize(2);
+    }
+}
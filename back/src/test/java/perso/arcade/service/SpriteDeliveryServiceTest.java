@@ -0,0 +1,211 @@
+package perso.arcade.service;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET conditionnel et Range de {@link SpriteDeliveryService} sur une planche de 100 octets.
+ */
+class SpriteDeliveryServiceTest {
+
+    private static final int SIZE = 100;
+    private static final String URI = "/sprite-storage/sheets/sheet.png";
+
+    @TempDir
+    Path root;
+
+    private SpriteDeliveryService service;
+    private byte[] content;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) i;
+        }
+        Files.createDirectories(root.resolve("sheets"));
+        Files.write(root.resolve("sheets/sheet.png"), content);
+        service = new SpriteDeliveryService(root.toString(), 60, 100);
+        etag = serve(new MockHttpServletRequest("GET", URI)).getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void plainGetServesWholeFile() throws IOException {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", URI));
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void closedRangeServesThoseBytes() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=10-19"));
+
+        assertPartial(response, 10, 19);
+    }
+
+    @Test
+    void closedRangePastEndIsClamped() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=90-500"));
+
+        assertPartial(response, 90, 99);
+    }
+
+    @Test
+    void openRangeServesToEnd() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=95-"));
+
+        assertPartial(response, 95, 99);
+    }
+
+    @Test
+    void suffixRangeServesLastBytes() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=-7"));
+
+        assertPartial(response, 93, 99);
+    }
+
+    @Test
+    void suffixLongerThanFileServesWholeFile() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=-500"));
+
+        assertPartial(response, 0, 99);
+    }
+
+    @Test
+    void multipleRangesServeWholeFile() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=0-9,20-29"));
+
+        assertFull(response);
+    }
+
+    @Test
+    void unknownUnitOrSyntaxIsIgnored() throws IOException {
+        assertFull(serve(range("items=0-9")));
+        assertFull(serve(range("bytes=abc")));
+        assertFull(serve(range("bytes=a-b")));
+    }
+
+    @Test
+    void rangeStartingPastEndIsNotSatisfiable() throws IOException {
+        MockHttpServletResponse response = serve(range("bytes=100-"));
+
+        assertNotSatisfiable(response);
+    }
+
+    @Test
+    void invertedRangeIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(serve(range("bytes=20-10")));
+    }
+
+    @Test
+    void emptySuffixIsNotSatisfiable() throws IOException {
+        assertNotSatisfiable(serve(range("bytes=-0")));
+    }
+
+    @Test
+    void matchingIfRangeHonoursRange() throws IOException {
+        MockHttpServletRequest request = range("bytes=0-4");
+        request.addHeader(HttpHeaders.IF_RANGE, etag);
+
+        assertPartial(serve(request), 0, 4);
+    }
+
+    @Test
+    void staleIfRangeServesWholeFile() throws IOException {
+        MockHttpServletRequest request = range("bytes=0-4");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"ancienne-version\"");
+
+        assertFull(serve(request));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws IOException {
+        assertNotModified(etag);
+    }
+
+    @Test
+    void weakIfNoneMatchIsNotModified() throws IOException {
+        assertNotModified("W/" + etag);
+    }
+
+    @Test
+    void starIfNoneMatchIsNotModified() throws IOException {
+        assertNotModified("*");
+    }
+
+    @Test
+    void listedIfNoneMatchIsNotModified() throws IOException {
+        assertNotModified("\"autre\", " + etag);
+    }
+
+    @Test
+    void staleIfNoneMatchServesWholeFile() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"ancienne-version\"");
+
+        assertFull(serve(request));
+    }
+
+    @Test
+    void ifNoneMatchWinsOverRange() throws IOException {
+        MockHttpServletRequest request = range("bytes=0-4");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        assertThat(serve(request).getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(request, response);
+        return response;
+    }
+
+    private MockHttpServletRequest range(String header) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+        request.addHeader(HttpHeaders.RANGE, header);
+        return request;
+    }
+
+    private void assertNotModified(String header) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, header);
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private void assertPartial(MockHttpServletResponse response, int start, int end) {
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes " + start + "-" + end + "/" + SIZE);
+        assertThat(response.getContentLengthLong()).isEqualTo(end - start + 1);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, start, end + 1));
+    }
+
+    private void assertFull(MockHttpServletResponse response) {
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    private void assertNotSatisfiable(MockHttpServletResponse response) {
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + SIZE);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package perso.arcade.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import perso.arcade.model.dto.SpriteInfos;
+import perso.arcade.model.enumeration.AnimationType;
+import perso.arcade.repository.SpriteRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpritePlayStoreTest {
+
+    private final CountDownLatch firstReadStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstRead = new CountDownLatch(1);
+    private final AtomicInteger reads = new AtomicInteger();
+    private volatile List<SpriteInfos> rows = List.of(idle("ancienne.png"));
+
+    /**
+     * Dépôt dont la première lecture reste bloquée jusqu'à {@code releaseFirstRead}, avec les lignes de son début.
+     */
+    private final SpriteRepository repository = Mockito.mock(SpriteRepository.class, invocation -> {
+        List<SpriteInfos> snapshot = rows;
+        if (reads.incrementAndGet() == 1) {
+            firstReadStarted.countDown();
+            releaseFirstRead.await(5, TimeUnit.SECONDS);
+        }
+        return snapshot;
+    });
+
+    private final SpritePlayStore store = new SpritePlayStore(repository);
+
+    @Test
+    void olderReadFinishingLastDoesNotOverwriteNewerOne() throws Exception {
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> store.refresh("knight"));
+        assertThat(firstReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        rows = List.of(idle("nouvelle.png"));
+        store.refresh("knight");
+        assertThat(store.get("knight").getIdle().getImageUrl()).isEqualTo("nouvelle.png");
+
+        releaseFirstRead.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        assertThat(store.get("knight").getIdle().getImageUrl()).isEqualTo("nouvelle.png");
+    }
+
+    @Test
+    void slowReadDoesNotBlockOtherSprites() throws Exception {
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> store.refresh("knight"));
+        assertThat(firstReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        rows = List.of(idle("mage.png"));
+        store.refresh("mage");
+
+        assertThat(store.get("mage").getIdle().getImageUrl()).isEqualTo("mage.png");
+        releaseFirstRead.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deletedSpriteIsNotResurrectedByOlderRead() throws Exception {
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> store.refresh("knight"));
+        assertThat(firstReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        rows = List.of();
+        store.refresh("knight");
+        releaseFirstRead.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        assertThat(store.get("knight").getIdle()).isNull();
+        assertThat(store.getAll(List.of("knight"))).isEmpty();
+    }
+
+    private static SpriteInfos idle(String imageUrl) {
+        return new SpriteInfos(1L, "knight", imageUrl, 32, 32, 4, 1f, 8, null, null, null, null, AnimationType.IDLE);
+    }
+}
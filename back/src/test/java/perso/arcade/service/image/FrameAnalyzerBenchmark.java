@@ -0,0 +1,82 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import perso.arcade.Benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'analyse sur le raster à l'ancien parcours {@code getRGB(x, y)} colonne par colonne de SpriteService,
+ * ramené ici à un seul passage alors qu'il en faisait deux (colonnes puis bornes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FrameAnalyzerBenchmark {
+
+    private static final int FRAME_WIDTH = 128;
+
+    @Param({"1024", "4096"})
+    public int width;
+
+    @Param({"INT_ARGB", "4BYTE_ABGR"})
+    public String layout;
+
+    private BufferedImage sheet;
+
+    @Setup
+    public void setUp() {
+        int type = layout.equals("INT_ARGB") ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_4BYTE_ABGR;
+        sheet = new BufferedImage(width, FRAME_WIDTH, type);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int start = 0; start < width; start += FRAME_WIDTH) {
+            int left = start + 16 + random.nextInt(16);
+            int right = start + FRAME_WIDTH - 16 - random.nextInt(16);
+            for (int y = 8 + random.nextInt(16); y < FRAME_WIDTH - 8; y++) {
+                for (int x = left; x < right; x++) {
+                    if (random.nextInt(4) != 0) {
+                        sheet.setRGB(x, y, 0xff000000 | random.nextInt(0x1000000));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public FrameAnalysis raster() {
+        return FrameAnalyzer.analyze(sheet);
+    }
+
+    @Benchmark
+    public FrameAnalysis getRgbColumnMajor() {
+        int w = sheet.getWidth();
+        int h = sheet.getHeight();
+        boolean[] columns = new boolean[w];
+        int minY = h;
+        int maxY = -1;
+
+        for (int x = 0; x < w; x++) {
+            for (int y = 0; y < h; y++) {
+                if (((sheet.getRGB(x, y) >>> 24) & 0xff) > FrameAnalyzer.ALPHA_THRESHOLD) {
+                    columns[x] = true;
+                    minY = Math.min(minY, y);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+
+        return new FrameAnalysis(columns, minY, maxY);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() throws RunnerException {
+        Benchmarks.run(FrameAnalyzerBenchmark.class);
+    }
+}
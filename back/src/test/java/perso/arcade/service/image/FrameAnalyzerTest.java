@@ -0,0 +1,175 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrameAnalyzerTest {
+
+    private static final int OPAQUE = 0xff336699;
+
+    /**
+     * Planche de {@code frames} frames de 32px, chaque frame contenant un bloc opaque en x=[8,23], y=[4,27].
+     */
+    private static BufferedImage sheet(int type, int frames) {
+        BufferedImage img = new BufferedImage(frames * 32, 32, type);
+        for (int f = 0; f < frames; f++) {
+            fill(img, f * 32 + 8, 4, 16, 24, OPAQUE);
+        }
+        return img;
+    }
+
+    private static void fill(BufferedImage img, int x0, int y0, int w, int h, int argb) {
+        for (int y = y0; y < y0 + h; y++) {
+            for (int x = x0; x < x0 + w; x++) {
+                img.setRGB(x, y, argb);
+            }
+        }
+    }
+
+    @Test
+    void detectsFramesOnPackedIntRaster() {
+        assertThat(FrameAnalyzer.detectFrames(sheet(BufferedImage.TYPE_INT_ARGB, 6))).isEqualTo(6);
+    }
+
+    @Test
+    void detectsFramesOnInterleavedByteRaster() {
+        assertThat(FrameAnalyzer.detectFrames(sheet(BufferedImage.TYPE_4BYTE_ABGR, 6))).isEqualTo(6);
+    }
+
+    @Test
+    void splitsBlocksWiderThanTheAverageFrame() {
+        BufferedImage img = new BufferedImage(5 * 32 + 60, 32, BufferedImage.TYPE_INT_ARGB);
+        for (int f = 0; f < 5; f++) {
+            fill(img, f * 32, 0, 20, 32, OPAQUE);
+        }
+        // Trois frames collées sans colonne vide entre elles
+        fill(img, 5 * 32, 0, 60, 32, OPAQUE);
+
+        assertThat(FrameAnalyzer.detectFrames(img)).isEqualTo(8);
+    }
+
+    @Test
+    void ignoresPixelsBelowAlphaThreshold() {
+        BufferedImage img = sheet(BufferedImage.TYPE_INT_ARGB, 2);
+        fill(img, 60, 0, 2, 32, FrameAnalyzer.ALPHA_THRESHOLD << 24);
+
+        FrameAnalysis analysis = FrameAnalyzer.analyze(img);
+
+        assertThat(analysis.columns()[60]).isFalse();
+        assertThat(FrameAnalyzer.detectFrames(img)).isEqualTo(2);
+    }
+
+    @Test
+    void transparentSheetHasNoContent() {
+        BufferedImage img = new BufferedImage(128, 32, BufferedImage.TYPE_INT_ARGB);
+
+        FrameAnalysis analysis = FrameAnalyzer.analyze(img);
+
+        assertThat(analysis.hasContent()).isFalse();
+        assertThat(analysis.globalBounds(4, 32)).isNull();
+        assertThat(FrameAnalyzer.detectFrames(img)).isEqualTo(1);
+    }
+
+    @Test
+    void opaqueImageIsEntirelyOccupied() {
+        FrameAnalysis analysis = FrameAnalyzer.analyze(new BufferedImage(40, 10, BufferedImage.TYPE_INT_RGB));
+
+        assertThat(analysis.columns()).containsOnly(true);
+        assertThat(analysis.minY()).isZero();
+        assertThat(analysis.maxY()).isEqualTo(9);
+    }
+
+    @Test
+    void globalBoundsAreRelativeToEachFrame() {
+        BufferedImage img = new BufferedImage(3 * 32, 32, BufferedImage.TYPE_INT_ARGB);
+        fill(img, 10, 5, 4, 4, OPAQUE);
+        fill(img, 32 + 6, 12, 4, 10, OPAQUE);
+        fill(img, 64 + 20, 8, 6, 2, OPAQUE);
+
+        Bounds bounds = FrameAnalyzer.analyze(img).globalBounds(3, 32);
+
+        assertThat(bounds).isEqualTo(new Bounds(6, 25, 5, 21));
+        assertThat(bounds.width()).isEqualTo(20);
+        assertThat(bounds.height()).isEqualTo(17);
+    }
+
+    @Test
+    void analyzeLimitsScanToRequestedWidth() {
+        BufferedImage img = sheet(BufferedImage.TYPE_INT_ARGB, 4);
+
+        FrameAnalysis analysis = FrameAnalyzer.analyze(img, 64);
+
+        assertThat(analysis.columns()).hasSize(64);
+        assertThat(analysis.globalBounds(2, 32)).isEqualTo(new Bounds(8, 23, 4, 27));
+    }
+
+    @Test
+    void allRasterLayoutsAgreeWithGetRgb() {
+        BufferedImage reference = sheet(BufferedImage.TYPE_INT_ARGB, 5);
+        fill(reference, 3, 30, 1, 1, OPAQUE);
+
+        BufferedImage bytes = copy(reference, BufferedImage.TYPE_4BYTE_ABGR);
+        BufferedImage indexed = indexedCopy(reference);
+        BufferedImage translated = padded(reference).getSubimage(7, 3, reference.getWidth(), reference.getHeight());
+
+        FrameAnalysis expected = slowAnalyze(reference);
+        for (BufferedImage img : new BufferedImage[]{reference, bytes, indexed, translated}) {
+            FrameAnalysis actual = FrameAnalyzer.analyze(img);
+            assertThat(actual.columns()).containsExactly(expected.columns());
+            assertThat(actual.minY()).isEqualTo(expected.minY());
+            assertThat(actual.maxY()).isEqualTo(expected.maxY());
+        }
+    }
+
+    /**
+     * Référence pixel par pixel via {@link BufferedImage#getRGB(int, int)}.
+     */
+    private static FrameAnalysis slowAnalyze(BufferedImage img) {
+        boolean[] columns = new boolean[img.getWidth()];
+        int minY = img.getHeight();
+        int maxY = -1;
+        for (int y = 0; y < img.getHeight(); y++) {
+            for (int x = 0; x < img.getWidth(); x++) {
+                if ((img.getRGB(x, y) >>> 24) > FrameAnalyzer.ALPHA_THRESHOLD) {
+                    columns[x] = true;
+                    minY = Math.min(minY, y);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+        return new FrameAnalysis(columns, minY, maxY);
+    }
+
+    private static BufferedImage copy(BufferedImage src, int type) {
+        BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), type);
+        dst.getGraphics().drawImage(src, 0, 0, null);
+        return dst;
+    }
+
+    private static BufferedImage padded(BufferedImage src) {
+        BufferedImage dst = new BufferedImage(src.getWidth() + 20, src.getHeight() + 10, BufferedImage.TYPE_INT_ARGB);
+        fill(dst, 0, 0, dst.getWidth(), 3, OPAQUE);
+        fill(dst, 0, 0, 7, dst.getHeight(), OPAQUE);
+        dst.getRaster().setDataElements(7, 3, src.getRaster());
+        return dst;
+    }
+
+    private static BufferedImage indexedCopy(BufferedImage src) {
+        byte[] r = {0, 0x33};
+        byte[] g = {0, 0x66};
+        byte[] b = {0, (byte) 0x99};
+        byte[] a = {0, (byte) 0xff};
+        BufferedImage dst = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_BYTE_INDEXED,
+                new IndexColorModel(1, 2, r, g, b, a));
+        for (int y = 0; y < src.getHeight(); y++) {
+            for (int x = 0; x < src.getWidth(); x++) {
+                dst.setRGB(x, y, src.getRGB(x, y));
+            }
+        }
+        return dst;
+    }
+}
@@ -0,0 +1,134 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MaxRectsPackerTest {
+
+    private static final int PAGE = 256;
+
+    @Test
+    void placementsStayInsidePageAndNeverOverlap() {
+        MaxRectsPacker packer = new MaxRectsPacker(PAGE);
+        SplittableRandom random = new SplittableRandom(42);
+        List<MaxRectsPacker.Placement> placements = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            MaxRectsPacker.Placement placement = packer.insert(random.nextInt(1, 97), random.nextInt(1, 97));
+            assertThat(placement).isNotNull();
+            placements.add(placement);
+        }
+
+        assertThat(packer.pageCount()).isGreaterThan(1);
+        assertDisjointAndInside(placements);
+    }
+
+    @Test
+    void fullPageOverflowsToNewPage() {
+        MaxRectsPacker packer = new MaxRectsPacker(PAGE);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(packer.insert(PAGE / 2, PAGE / 2).page()).isZero();
+        }
+        MaxRectsPacker.Placement next = packer.insert(1, 1);
+
+        assertThat(next.page()).isEqualTo(1);
+        assertThat(next.rect()).isEqualTo(new MaxRectsPacker.Rect(0, 0, 1, 1));
+        assertThat(packer.pageCount()).isEqualTo(2);
+    }
+
+    @Test
+    void earlierPageIsFilledBeforeLaterOne() {
+        MaxRectsPacker packer = new MaxRectsPacker(PAGE);
+        packer.insert(PAGE, PAGE - 10);
+        packer.insert(PAGE, PAGE);
+
+        assertThat(packer.insert(PAGE, 10).page()).isZero();
+    }
+
+    @Test
+    void rectangleLargerThanPageIsRejected() {
+        MaxRectsPacker packer = new MaxRectsPacker(PAGE);
+
+        assertThat(packer.insert(PAGE + 1, 1)).isNull();
+        assertThat(packer.insert(1, PAGE + 1)).isNull();
+        assertThat(packer.pageCount()).isZero();
+        assertThat(packer.insert(PAGE, PAGE).page()).isZero();
+    }
+
+    @Test
+    void rebuildKeepsPlacementsAndFillsAroundThem() {
+        MaxRectsPacker first = new MaxRectsPacker(PAGE);
+        SplittableRandom random = new SplittableRandom(7);
+        List<MaxRectsPacker.Placement> previous = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            previous.add(first.insert(random.nextInt(8, 65), random.nextInt(8, 65)));
+        }
+
+        // Reconstruction comme l'atlas : une entrée sur trois disparaît, les autres gardent leur place
+        List<MaxRectsPacker.Placement> kept = new ArrayList<>();
+        for (int i = 0; i < previous.size(); i++) {
+            if (i % 3 != 0) {
+                kept.add(previous.get(i));
+            }
+        }
+        MaxRectsPacker rebuilt = new MaxRectsPacker(PAGE);
+        kept.forEach(placement -> rebuilt.occupy(placement.page(), placement.rect()));
+
+        List<MaxRectsPacker.Placement> all = new ArrayList<>(kept);
+        for (int i = 0; i < 60; i++) {
+            all.add(rebuilt.insert(random.nextInt(8, 65), random.nextInt(8, 65)));
+        }
+
+        assertDisjointAndInside(all);
+        assertThat(rebuilt.pageCount()).isGreaterThanOrEqualTo(first.pageCount());
+    }
+
+    @Test
+    void freedSlotIsReusedOnRebuild() {
+        MaxRectsPacker first = new MaxRectsPacker(PAGE);
+        List<MaxRectsPacker.Placement> previous = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            previous.add(first.insert(PAGE / 4, PAGE / 4));
+        }
+        MaxRectsPacker.Placement removed = previous.remove(5);
+
+        MaxRectsPacker rebuilt = new MaxRectsPacker(PAGE);
+        previous.forEach(placement -> rebuilt.occupy(placement.page(), placement.rect()));
+
+        assertThat(rebuilt.insert(PAGE / 4, PAGE / 4)).isEqualTo(removed);
+        assertThat(rebuilt.pageCount()).isEqualTo(1);
+    }
+
+    @Test
+    void occupyCreatesMissingPages() {
+        MaxRectsPacker packer = new MaxRectsPacker(PAGE);
+        packer.occupy(2, new MaxRectsPacker.Rect(0, 0, PAGE, PAGE));
+
+        assertThat(packer.pageCount()).isEqualTo(3);
+        assertThat(packer.insert(PAGE, PAGE).page()).isZero();
+        assertThat(packer.insert(PAGE, PAGE).page()).isEqualTo(1);
+        assertThat(packer.insert(PAGE, PAGE).page()).isEqualTo(3);
+    }
+
+    private static void assertDisjointAndInside(List<MaxRectsPacker.Placement> placements) {
+        for (int i = 0; i < placements.size(); i++) {
+            MaxRectsPacker.Placement a = placements.get(i);
+            assertThat(a.rect().x()).isGreaterThanOrEqualTo(0);
+            assertThat(a.rect().y()).isGreaterThanOrEqualTo(0);
+            assertThat(a.rect().right()).isLessThanOrEqualTo(PAGE);
+            assertThat(a.rect().bottom()).isLessThanOrEqualTo(PAGE);
+            for (int j = i + 1; j < placements.size(); j++) {
+                MaxRectsPacker.Placement b = placements.get(j);
+                assertThat(a.page() == b.page() && a.rect().intersects(b.rect()))
+                        .as("%s chevauche %s", a, b)
+                        .isFalse();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import perso.arcade.Benchmarks;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de la normalisation : quantification et encodage dans la JVM contre l'ancien chemin
+ * {@code ImageIO.write} puis {@code pngquant} lancé en sous-processus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PaletteQuantizerBenchmark {
+
+    private static final int MIN_QUALITY = 60;
+    private static final int MAX_QUALITY = 80;
+
+    @Param({"64", "128"})
+    public int frameSize;
+
+    private final PngEncoder encoder = new PngEncoder(new DeflaterPool(9, 1));
+    private int[] argb;
+    private int width;
+    private int height;
+    private BufferedImage image;
+    private Path target;
+
+    @Setup
+    public void setUp() throws IOException {
+        width = 8 * frameSize;
+        height = frameSize;
+        argb = TestSheets.sprites(8, frameSize, 7);
+        image = TestSheets.toImage(argb, width, height);
+        target = Files.createTempFile("bench_pngquant_", ".png");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public int inProcess() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PaletteQuantizer.IndexedImage indexed =
+                PaletteQuantizer.quantize(argb, width, height, MIN_QUALITY, MAX_QUALITY);
+        if (indexed == null) {
+            encoder.encode(argb, width, height, out);
+        } else {
+            encoder.encodeIndexed(indexed, out);
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int pngquantSubprocess() throws IOException, InterruptedException {
+        ImageIO.write(image, "png", target.toFile());
+        Process process = new ProcessBuilder(
+                "pngquant", "--force", "--ext", ".png",
+                "--quality=" + MIN_QUALITY + "-" + MAX_QUALITY, "--strip",
+                target.toString()
+        ).start();
+        return process.waitFor();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() throws RunnerException {
+        if (pngquantAvailable()) {
+            Benchmarks.run(PaletteQuantizerBenchmark.class);
+        } else {
+            System.out.println("pngquant absent du PATH : seul le chemin dans la JVM est mesuré");
+            Benchmarks.run(PaletteQuantizerBenchmark.class, "pngquantSubprocess");
+        }
+    }
+
+    private static boolean pngquantAvailable() {
+        try {
+            return new ProcessBuilder("pngquant", "--version").start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
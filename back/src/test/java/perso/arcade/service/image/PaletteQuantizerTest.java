@@ -0,0 +1,97 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaletteQuantizerTest {
+
+    private final PngEncoder encoder = new PngEncoder(new DeflaterPool(9, 1));
+
+    @Test
+    void keepsExactPaletteWhenColorsFit() throws IOException {
+        int[] argb = new int[40 * 10];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = i % 40 < 20 ? 0xff102030 : 0x80405060;
+        }
+        argb[0] = 0x00ffffff;
+
+        PaletteQuantizer.IndexedImage indexed = PaletteQuantizer.quantize(argb, 40, 10, 60, 80);
+
+        assertThat(indexed).isNotNull();
+        assertThat(indexed.quality()).isEqualTo(100);
+        assertThat(indexed.palette()).containsExactly(0x00000000, 0x80405060, 0xff102030);
+
+        BufferedImage decoded = roundTrip(indexed);
+        for (int i = 1; i < argb.length; i++) {
+            assertThat(decoded.getRGB(i % 40, i / 40)).isEqualTo(argb[i]);
+        }
+        assertThat(decoded.getRGB(0, 0) >>> 24).isZero();
+    }
+
+    @Test
+    void decodedPixelsMatchTheChosenPalette() throws IOException {
+        int width = 8 * 64;
+        int[] argb = TestSheets.sprites(8, 64, 3);
+
+        PaletteQuantizer.IndexedImage indexed = PaletteQuantizer.quantize(argb, width, 64, 60, 80);
+
+        assertThat(indexed).isNotNull();
+        assertThat(indexed.palette().length).isLessThanOrEqualTo(PaletteQuantizer.MAX_COLORS);
+        assertThat(indexed.quality()).isGreaterThanOrEqualTo(60);
+
+        BufferedImage decoded = roundTrip(indexed);
+        for (int i = 0; i < argb.length; i++) {
+            int expected = indexed.palette()[indexed.indices()[i] & 0xff];
+            assertThat(decoded.getRGB(i % width, i / width)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void stopsAtTheSmallestPaletteReachingMaxQuality() {
+        int width = 8 * 64;
+        int[] argb = TestSheets.sprites(8, 64, 3);
+
+        PaletteQuantizer.IndexedImage loose = PaletteQuantizer.quantize(argb, width, 64, 0, 10);
+        PaletteQuantizer.IndexedImage strict = PaletteQuantizer.quantize(argb, width, 64, 0, 99);
+
+        assertThat(loose.palette().length).isLessThanOrEqualTo(strict.palette().length);
+        assertThat(loose.quality()).isLessThanOrEqualTo(strict.quality());
+    }
+
+    @Test
+    void translucentEntriesComeFirst() {
+        int[] palette = PaletteQuantizer.quantize(TestSheets.sprites(8, 64, 5), 8 * 64, 64, 0, 80).palette();
+
+        boolean opaqueSeen = false;
+        for (int color : palette) {
+            boolean opaque = (color >>> 24) == 0xff;
+            assertThat(opaqueSeen && !opaque).isFalse();
+            opaqueSeen |= opaque;
+        }
+    }
+
+    @Test
+    void returnsNullWhenMinQualityIsUnreachable() {
+        assertThat(PaletteQuantizer.quantize(TestSheets.sprites(8, 64, 3), 8 * 64, 64, 100, 100)).isNull();
+    }
+
+    @Test
+    void qualityScaleMatchesPngquant() {
+        assertThat(PaletteQuantizer.mseToQuality(0)).isEqualTo(100);
+        assertThat(PaletteQuantizer.mseToQuality(1e-4)).isGreaterThan(PaletteQuantizer.mseToQuality(1e-2));
+        assertThat(PaletteQuantizer.mseToQuality(1)).isZero();
+    }
+
+    private BufferedImage roundTrip(PaletteQuantizer.IndexedImage indexed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encodeIndexed(indexed, out);
+        return ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
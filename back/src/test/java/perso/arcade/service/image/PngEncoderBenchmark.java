@@ -0,0 +1,66 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import perso.arcade.Benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écriture sans perte du stockage : {@link PngEncoder} contre {@link ImageIoEncoder}. Les tailles obtenues sont
+ * affichées au début de chaque essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PngEncoderBenchmark {
+
+    private static final int FRAME_SIZE = 128;
+    private static final int FRAMES = 8;
+
+    @Param({"sprites", "palette"})
+    public String sheet;
+
+    @Param({"6", "9"})
+    public int deflateLevel;
+
+    private final ImageIoEncoder imageIo = new ImageIoEncoder();
+    private final int width = FRAMES * FRAME_SIZE;
+    private PngEncoder optimized;
+    private int[] argb;
+
+    @Setup
+    public void setUp() throws IOException {
+        optimized = new PngEncoder(new DeflaterPool(deflateLevel, 1));
+        argb = sheet.equals("sprites")
+                ? TestSheets.sprites(FRAMES, FRAME_SIZE, 21)
+                : TestSheets.palette(width, FRAME_SIZE, 48);
+
+        System.out.printf("%n%s, niveau %d : optimized %d octets, imageio %d octets%n",
+                sheet, deflateLevel, optimized().size(), imageIo().size());
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream optimized() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        optimized.encode(argb, width, FRAME_SIZE, out);
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream imageIo() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        imageIo.encode(argb, width, FRAME_SIZE, out);
+        return out;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() throws RunnerException {
+        Benchmarks.run(PngEncoderBenchmark.class);
+    }
+}
@@ -0,0 +1,154 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PngEncoderTest {
+
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int COLOR_TYPE_INDEXED = 3;
+    private static final int COLOR_TYPE_RGBA = 6;
+
+    private final PngEncoder encoder = new PngEncoder(new DeflaterPool(9, 1));
+
+    @Test
+    void reducesSmallPalettesToTheLowestBitDepth() throws IOException {
+        int[][] cases = {{2, 1}, {4, 2}, {16, 4}, {200, 8}};
+        for (int[] c : cases) {
+            // Largeur impaire : la dernière ligne ne remplit pas son dernier octet
+            int[] argb = TestSheets.palette(37, 5, c[0]);
+
+            byte[] png = encode(argb, 37, 5);
+
+            assertThat(bitDepth(png)).isEqualTo(c[1]);
+            assertThat(colorType(png)).isEqualTo(COLOR_TYPE_INDEXED);
+            assertSamePixels(argb, decode(png));
+        }
+    }
+
+    @Test
+    void keepsTranslucentPaletteEntries() throws IOException {
+        int[] argb = {0x00000000, 0x40ff0000, 0xff00ff00, 0x80123456, 0xff00ff00, 0x00ffffff};
+
+        byte[] png = encode(argb, 3, 2);
+
+        assertThat(colorType(png)).isEqualTo(COLOR_TYPE_INDEXED);
+        assertThat(chunkTypes(png)).contains("tRNS");
+        assertSamePixels(argb, decode(png));
+    }
+
+    @Test
+    void writesOpaqueTruecolorAsRgb() throws IOException {
+        SplittableRandom random = new SplittableRandom(11);
+        int[] argb = new int[64 * 48];
+        for (int i = 0; i < argb.length; i++) {
+            argb[i] = 0xff000000 | random.nextInt(0x1000000);
+        }
+
+        byte[] png = encode(argb, 64, 48);
+
+        assertThat(colorType(png)).isEqualTo(COLOR_TYPE_RGB);
+        assertSamePixels(argb, decode(png));
+    }
+
+    @Test
+    void writesTranslucentTruecolorAsRgba() throws IOException {
+        int width = 4 * 48;
+        int[] argb = TestSheets.sprites(4, 48, 1);
+
+        byte[] png = encode(argb, width, 48);
+
+        assertThat(colorType(png)).isEqualTo(COLOR_TYPE_RGBA);
+        assertSamePixels(argb, decode(png));
+    }
+
+    @Test
+    void writesOnlyCriticalChunks() throws IOException {
+        byte[] png = encode(TestSheets.sprites(2, 32, 9), 64, 32);
+
+        assertThat(chunkTypes(png).get(0)).isEqualTo("IHDR");
+        assertThat(chunkTypes(png)).doesNotContain("tEXt", "pHYs", "gAMA", "iCCP", "sRGB", "tIME");
+        assertThat(chunkTypes(png).get(chunkTypes(png).size() - 1)).isEqualTo("IEND");
+    }
+
+    @Test
+    void isNotLargerThanImageIo() throws IOException {
+        int width = 8 * 64;
+        int[] argb = TestSheets.sprites(8, 64, 4);
+
+        ByteArrayOutputStream reference = new ByteArrayOutputStream();
+        new ImageIoEncoder().encode(argb, width, 64, reference);
+
+        assertThat(encode(argb, width, 64).length).isLessThanOrEqualTo(reference.size());
+    }
+
+    @Test
+    void writerLosslessPathRoundTrips() throws IOException {
+        SpritePngWriter writer = new SpritePngWriter(60, 80, 9, "optimized");
+        int width = 4 * 64;
+        int[] argb = TestSheets.sprites(4, 64, 8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.writeLossless(TestSheets.toImage(argb, width, 64), out);
+
+        assertSamePixels(argb, decode(out.toByteArray()));
+    }
+
+    private byte[] encode(int[] argb, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.encode(argb, width, height, out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    /**
+     * Sans perte au sens visible : les pixels entièrement transparents peuvent changer de couleur.
+     */
+    private static void assertSamePixels(int[] expected, BufferedImage decoded) {
+        int width = decoded.getWidth();
+        for (int i = 0; i < expected.length; i++) {
+            int actual = decoded.getRGB(i % width, i / width);
+            if ((expected[i] >>> 24) == 0) {
+                assertThat(actual >>> 24).isZero();
+            } else {
+                assertThat(actual).isEqualTo(expected[i]);
+            }
+        }
+    }
+
+    private static int bitDepth(byte[] png) {
+        return png[24];
+    }
+
+    private static int colorType(byte[] png) {
+        return png[25];
+    }
+
+    private static List<String> chunkTypes(byte[] png) {
+        List<String> types = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(png, 8, png.length - 8);
+        while (buffer.remaining() >= 12) {
+            int length = buffer.getInt();
+            byte[] type = new byte[4];
+            buffer.get(type);
+            types.add(new String(type, StandardCharsets.US_ASCII));
+            buffer.position(buffer.position() + length + 4);
+        }
+        return types;
+    }
+}
@@ -0,0 +1,174 @@
+package perso.arcade.service.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpriteSheetTransformerTest {
+
+    private final SpriteSheetTransformer transformer = new SpriteSheetTransformer(4, 1 << 20);
+
+    /**
+     * Chaque pixel encode ses coordonnées, pour vérifier d'où il vient.
+     */
+    private static int pixel(int x, int y) {
+        return 0xff000000 | x << 8 | y;
+    }
+
+    private PixelSheet coordinates(int width, int height) {
+        PixelSheet sheet = transformer.allocate(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                sheet.pixels()[y * width + x] = pixel(x, y);
+            }
+        }
+        return sheet;
+    }
+
+    private static int at(PixelSheet sheet, int x, int y) {
+        return sheet.pixels()[y * sheet.width() + x];
+    }
+
+    @Test
+    void loadMatchesGetRgbForEveryLayout() {
+        BufferedImage reference = new BufferedImage(7, 5, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 7; x++) {
+                reference.setRGB(x, y, (x * 40) << 24 | pixel(x, y) & 0xffffff);
+            }
+        }
+        BufferedImage bytes = new BufferedImage(7, 5, BufferedImage.TYPE_4BYTE_ABGR);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 7; x++) {
+                bytes.setRGB(x, y, reference.getRGB(x, y));
+            }
+        }
+
+        for (BufferedImage image : new BufferedImage[]{reference, bytes}) {
+            try (PixelSheet sheet = transformer.load(image)) {
+                for (int y = 0; y < 5; y++) {
+                    for (int x = 0; x < 7; x++) {
+                        assertThat(at(sheet, x, y)).isEqualTo(reference.getRGB(x, y));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void cropKeepsTheSameRectangleOfEachFrame() {
+        try (PixelSheet source = coordinates(3 * 8, 4);
+             PixelSheet cropped = transformer.crop(source, 3, new Bounds(2, 4, 1, 2))) {
+
+            assertThat(cropped.width()).isEqualTo(9);
+            assertThat(cropped.height()).isEqualTo(2);
+            for (int frame = 0; frame < 3; frame++) {
+                for (int y = 0; y < 2; y++) {
+                    for (int x = 0; x < 3; x++) {
+                        assertThat(at(cropped, frame * 3 + x, y)).isEqualTo(pixel(frame * 8 + 2 + x, 1 + y));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void flipMirrorsEachFrameAndClearsTrailingColumns() {
+        try (PixelSheet sheet = coordinates(10, 2)) {
+            transformer.flipFrames(sheet, 3);
+
+            for (int y = 0; y < 2; y++) {
+                for (int frame = 0; frame < 3; frame++) {
+                    for (int x = 0; x < 3; x++) {
+                        assertThat(at(sheet, frame * 3 + x, y)).isEqualTo(pixel(frame * 3 + 2 - x, y));
+                    }
+                }
+                assertThat(at(sheet, 9, y)).isZero();
+            }
+        }
+    }
+
+    @Test
+    void flipTwiceRestoresTheSheet() {
+        try (PixelSheet sheet = coordinates(12, 3); PixelSheet original = coordinates(12, 3)) {
+            transformer.flipFrames(sheet, 4);
+            transformer.flipFrames(sheet, 4);
+
+            for (int i = 0; i < 12 * 3; i++) {
+                assertThat(sheet.pixels()[i]).isEqualTo(original.pixels()[i]);
+            }
+        }
+    }
+
+    @Test
+    void copyAndClearRectTouchOnlyTheirRectangle() {
+        try (PixelSheet source = coordinates(6, 6); PixelSheet target = transformer.allocate(6, 6)) {
+            transformer.copyRect(source, 1, 2, target, 3, 0, 2, 3);
+            transformer.clearRect(target, 4, 1, 1, 1);
+
+            for (int y = 0; y < 6; y++) {
+                for (int x = 0; x < 6; x++) {
+                    boolean copied = x >= 3 && x < 5 && y < 3 && !(x == 4 && y == 1);
+                    assertThat(at(target, x, y)).isEqualTo(copied ? pixel(x - 2, y + 2) : 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void downscaleAveragesCoveredPixelsWithPremultipliedAlpha() {
+        try (PixelSheet source = transformer.allocate(4, 2)) {
+            int[] pixels = source.pixels();
+            // Frame 0 : rouge opaque à gauche, transparent à droite ; frame 1 : gris uniforme
+            pixels[0] = 0xffff0000;
+            pixels[4] = 0xffff0000;
+            for (int i : new int[]{2, 3, 6, 7}) {
+                pixels[i] = 0xff808080;
+            }
+
+            try (PixelSheet reduced = transformer.downscale(source, 2, 1, 1)) {
+                assertThat(reduced.width()).isEqualTo(2);
+                assertThat(reduced.pixels()[0]).isEqualTo(0x80ff0000);
+                assertThat(reduced.pixels()[1]).isEqualTo(0xff808080);
+            }
+        }
+    }
+
+    @Test
+    void closedBuffersAreReusedAndCleared() {
+        PixelSheet first = coordinates(8, 8);
+        int[] buffer = first.pixels();
+        first.close();
+
+        try (PixelSheet second = transformer.allocate(8, 8)) {
+            assertThat(second.pixels()).isSameAs(buffer);
+            for (int i = 0; i < 64; i++) {
+                assertThat(second.pixels()[i]).isZero();
+            }
+        }
+    }
+
+    @Test
+    void doubleCloseReleasesTheBufferOnce() {
+        PixelSheet sheet = transformer.allocate(8, 8);
+        sheet.close();
+        sheet.close();
+
+        try (PixelSheet a = transformer.allocate(8, 8); PixelSheet b = transformer.allocate(8, 8)) {
+            assertThat(a.pixels()).isNotSameAs(b.pixels());
+        }
+    }
+
+    @Test
+    void poolIgnoresABufferAlreadyIdle() {
+        IntBufferPool pool = new IntBufferPool(4, 1 << 20);
+        int[] buffer = new int[16];
+        pool.release(buffer);
+        pool.release(buffer);
+
+        assertThat(pool.acquire(16)).isSameAs(buffer);
+        assertThat(pool.acquire(16)).isNotSameAs(buffer);
+    }
+}
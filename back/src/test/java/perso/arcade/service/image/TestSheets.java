@@ -0,0 +1,73 @@
+package perso.arcade.service.image;
+
+import java.awt.image.*;
+import java.util.SplittableRandom;
+
+/**
+ * Planches synthétiques pour les tests et benchmarks d'encodage.
+ */
+final class TestSheets {
+
+    private static final int[] ARGB_MASKS = {0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000};
+
+    private TestSheets() {
+    }
+
+    /**
+     * {@code frames} frames carrées côte à côte : un disque dégradé et bruité sur fond transparent, bord adouci.
+     * Des milliers de couleurs, comme une planche dessinée à la main.
+     */
+    static int[] sprites(int frames, int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int width = frames * size;
+        int[] argb = new int[width * size];
+
+        for (int f = 0; f < frames; f++) {
+            double cx = size / 2.0 + random.nextInt(-size / 8, size / 8 + 1);
+            double cy = size / 2.0 + random.nextInt(-size / 8, size / 8 + 1);
+            double radius = size * 0.4;
+            int hue = random.nextInt(0x1000000);
+
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    double d = Math.hypot(x - cx, y - cy) / radius;
+                    if (d >= 1) {
+                        continue;
+                    }
+                    int alpha = d > 0.9 ? (int) ((1 - d) * 10 * 255) : 255;
+                    double shade = 1 - 0.6 * d;
+                    int r = shade(hue >> 16, shade, random);
+                    int g = shade(hue >> 8, shade, random);
+                    int b = shade(hue, shade, random);
+                    argb[y * width + f * size + x] = alpha << 24 | r << 16 | g << 8 | b;
+                }
+            }
+        }
+        return argb;
+    }
+
+    /**
+     * Image opaque d'exactement {@code colors} couleurs, en bandes verticales.
+     */
+    static int[] palette(int width, int height, int colors) {
+        int[] argb = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Multiplier par un impair est une bijection modulo 2^24 : les couleurs restent distinctes
+                argb[y * width + x] = 0xff000000 | (x * colors / width * 0x0a1b2c3) & 0xffffff;
+            }
+        }
+        return argb;
+    }
+
+    static BufferedImage toImage(int[] argb, int width, int height) {
+        DataBufferInt buffer = new DataBufferInt(argb, width * height);
+        WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, ARGB_MASKS, null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    private static int shade(int channel, double shade, SplittableRandom random) {
+        int value = (int) ((channel & 0xff) * shade) + random.nextInt(-6, 7);
+        return Math.max(0, Math.min(255, value));
+    }
+}
@@ -0,0 +1,124 @@
+package perso.arcade.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameLeaderboardTest {
+
+    @Test
+    void higherScoresRankFirstByDefault() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        board.offer(1, "a", 100, 10);
+        board.offer(2, "b", 300, 11);
+        board.offer(3, "c", 200, 12);
+
+        assertThat(players(board.range(1, 10))).containsExactly(2L, 3L, 1L);
+        assertThat(board.rankOf(1)).isEqualTo(3);
+    }
+
+    @Test
+    void timedGamesRankLowestFirstAndFormatMilliseconds() {
+        GameLeaderboard board = new GameLeaderboard(1, true);
+        board.offer(1, "a", 65_000, 10);
+        board.offer(2, "b", 9_000, 11);
+
+        List<GameLeaderboard.RankedEntry> top = board.range(1, 10);
+
+        assertThat(players(top)).containsExactly(2L, 1L);
+        assertThat(top.get(0).entry().displayScore()).isEqualTo("0m09s");
+        assertThat(top.get(1).entry().displayScore()).isEqualTo("1m05s");
+    }
+
+    @Test
+    void tiesAreBrokenByRecordId() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        board.offer(1, "a", 100, 12);
+        board.offer(2, "b", 100, 11);
+
+        assertThat(players(board.range(1, 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void onlyBetterScoresReplaceAnEntry() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        board.offer(1, "a", 100, 10);
+        board.offer(2, "b", 200, 11);
+
+        assertThat(board.offer(1, "a", 50, 10)).isNull();
+
+        GameLeaderboard.RankChange change = board.offer(1, "a", 300, 10);
+        assertThat(change.oldRank()).isEqualTo(2);
+        assertThat(change.newRank()).isEqualTo(1);
+        assertThat(board.size()).isEqualTo(2);
+    }
+
+    @Test
+    void submitKeepsTheExistingRecordId() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        long[] next = {100};
+
+        GameLeaderboard.RankChange first = board.submit(1, "a", 10, () -> next[0]++);
+        GameLeaderboard.RankChange second = board.submit(1, "a", 20, () -> next[0]++);
+
+        assertThat(first.oldRank()).isZero();
+        assertThat(first.entry().recordId()).isEqualTo(100L);
+        assertThat(second.entry().recordId()).isEqualTo(100L);
+        assertThat(next[0]).isEqualTo(101L);
+    }
+
+    @Test
+    void rekeyReplacesTheProvisionalRecordId() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        board.submit(1, "a", 100, () -> 1L << 48);
+        board.offer(2, "b", 100, 5);
+        assertThat(players(board.range(1, 10))).containsExactly(2L, 1L);
+
+        assertThat(board.rekey(1, 100, 3)).isTrue();
+
+        assertThat(players(board.range(1, 10))).containsExactly(1L, 2L);
+        assertThat(board.find(1).entry().recordId()).isEqualTo(3L);
+        assertThat(board.find(1).entry().displayScore()).isEqualTo("100");
+        // Score amélioré depuis l'écriture : la prochaine écriture fournira l'identifiant
+        assertThat(board.rekey(1, 90, 4)).isFalse();
+        assertThat(board.rekey(42, 100, 4)).isFalse();
+    }
+
+    @Test
+    void afterResumesFromACursor() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        for (int player = 1; player <= 10; player++) {
+            board.offer(player, "p" + player, player * 10, player);
+        }
+
+        GameLeaderboard.Entry last = board.range(1, 3).get(2).entry();
+        List<GameLeaderboard.RankedEntry> page = board.after(last.score(), last.recordId(), 3);
+
+        assertThat(players(page)).containsExactly(7L, 6L, 5L);
+        assertThat(page.get(0).rank()).isEqualTo(4);
+
+        // L'entrée du curseur améliorée entre deux pages ne décale pas la suite
+        board.offer(last.playerId(), "p8", 1_000, last.recordId());
+        assertThat(players(board.after(last.score(), last.recordId(), 3))).containsExactly(7L, 6L, 5L);
+    }
+
+    @Test
+    void aroundIsClippedAtTheEdges() {
+        GameLeaderboard board = new GameLeaderboard(1, false);
+        for (int player = 1; player <= 5; player++) {
+            board.offer(player, "p" + player, player * 10, player);
+        }
+
+        assertThat(players(board.around(3, 1))).containsExactly(4L, 3L, 2L);
+        assertThat(players(board.around(5, 2))).containsExactly(5L, 4L, 3L);
+        assertThat(players(board.around(1, 10))).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(board.around(42, 2)).isEmpty();
+        assertThat(board.find(42)).isNull();
+    }
+
+    private static List<Long> players(List<GameLeaderboard.RankedEntry> entries) {
+        return entries.stream().map(ranked -> ranked.entry().playerId()).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package perso.arcade.service.leaderboard;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+import perso.arcade.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amélioration d'un score puis lecture de son rang : skip list indexable contre une liste triée mise à jour par
+ * recherche dichotomique, dont l'insertion décale en O(n).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RankedIndexBenchmark {
+
+    @Param({"10000", "100000"})
+    public int players;
+
+    private final Comparator<Long> order = Comparator.naturalOrder();
+    private final SplittableRandom random = new SplittableRandom(16);
+    private RankedIndex<Long> index;
+    private List<Long> sorted;
+    private long[] scores;
+
+    @Setup
+    public void setUp() {
+        index = new RankedIndex<>(order);
+        sorted = new ArrayList<>(players);
+        scores = new long[players];
+        for (int i = 0; i < players; i++) {
+            scores[i] = next(i);
+            index.insert(scores[i]);
+            sorted.add(scores[i]);
+        }
+        Collections.sort(sorted);
+    }
+
+    @Benchmark
+    public int rankedIndex() {
+        int player = random.nextInt(players);
+        index.remove(scores[player]);
+        scores[player] = next(scores[player]);
+        index.insert(scores[player]);
+        return index.rankOf(scores[player]);
+    }
+
+    @Benchmark
+    public int sortedList() {
+        int player = random.nextInt(players);
+        sorted.remove(Collections.binarySearch(sorted, scores[player], order));
+        scores[player] = next(scores[player]);
+        int position = -Collections.binarySearch(sorted, scores[player], order) - 1;
+        sorted.add(position, scores[player]);
+        return position + 1;
+    }
+
+    /**
+     * Nouveau score unique (le reste modulo {@code players} identifie le joueur), tiré au hasard dans le classement.
+     */
+    private long next(long score) {
+        return (long) random.nextInt(players * 4) * players + score % players;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmark() throws RunnerException {
+        Benchmarks.run(RankedIndexBenchmark.class);
+    }
+}
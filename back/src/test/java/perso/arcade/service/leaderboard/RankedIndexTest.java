@@ -0,0 +1,131 @@
+package perso.arcade.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedIndexTest {
+
+    @Test
+    void emptyIndexHasNoRanks() {
+        RankedIndex<Integer> index = new RankedIndex<>(Comparator.naturalOrder());
+
+        assertThat(index.size()).isZero();
+        assertThat(index.rankOf(1)).isZero();
+        assertThat(index.countUpTo(1)).isZero();
+        assertThat(index.range(1, 10)).isEmpty();
+        assertThat(index.remove(1)).isFalse();
+    }
+
+    @Test
+    void ranksFollowComparatorOrder() {
+        RankedIndex<Integer> index = new RankedIndex<>(Comparator.reverseOrder());
+        for (int value : new int[]{30, 10, 50, 20, 40}) {
+            index.insert(value);
+        }
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.rankOf(50)).isEqualTo(1);
+        assertThat(index.rankOf(10)).isEqualTo(5);
+        assertThat(index.rankOf(35)).isZero();
+        assertThat(index.range(1, 5)).containsExactly(50, 40, 30, 20, 10);
+    }
+
+    @Test
+    void rangeClampsOutOfBoundsArguments() {
+        RankedIndex<Integer> index = new RankedIndex<>(Comparator.naturalOrder());
+        for (int i = 1; i <= 10; i++) {
+            index.insert(i);
+        }
+
+        assertThat(index.range(8, 10)).containsExactly(8, 9, 10);
+        assertThat(index.range(0, 3)).isEmpty();
+        assertThat(index.range(11, 3)).isEmpty();
+        assertThat(index.range(3, 0)).isEmpty();
+        assertThat(index.range(3, -1)).isEmpty();
+    }
+
+    @Test
+    void countUpToAcceptsAbsentProbes() {
+        RankedIndex<Integer> index = new RankedIndex<>(Comparator.naturalOrder());
+        for (int i = 10; i <= 50; i += 10) {
+            index.insert(i);
+        }
+
+        assertThat(index.countUpTo(5)).isZero();
+        assertThat(index.countUpTo(10)).isEqualTo(1);
+        assertThat(index.countUpTo(25)).isEqualTo(2);
+        assertThat(index.countUpTo(99)).isEqualTo(5);
+    }
+
+    @Test
+    void removeReturnsFalseForAbsentValue() {
+        RankedIndex<Integer> index = new RankedIndex<>(Comparator.naturalOrder());
+        index.insert(1);
+        index.insert(3);
+
+        assertThat(index.remove(2)).isFalse();
+        assertThat(index.remove(3)).isTrue();
+        assertThat(index.remove(3)).isFalse();
+        assertThat(index.range(1, 5)).containsExactly(1);
+    }
+
+    @Test
+    void matchesSortedListUnderRandomOperations() {
+        SplittableRandom random = new SplittableRandom(16);
+        RankedIndex<Integer> index = new RankedIndex<>(Comparator.naturalOrder());
+        List<Integer> model = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(2_000);
+            int position = Collections.binarySearch(model, value);
+            if (position < 0 && random.nextInt(3) != 0) {
+                index.insert(value);
+                model.add(-position - 1, value);
+            } else {
+                assertThat(index.remove(value)).isEqualTo(position >= 0);
+                if (position >= 0) {
+                    model.remove(position);
+                }
+            }
+
+            if (step % 97 == 0) {
+                assertSameAs(model, index, random);
+            }
+        }
+        assertSameAs(model, index, random);
+        assertThat(index.range(1, model.size())).containsExactlyElementsOf(model);
+
+        // Vider entièrement l'index doit le ramener à l'état initial
+        for (int value : new ArrayList<>(model)) {
+            assertThat(index.remove(value)).isTrue();
+        }
+        assertThat(index.size()).isZero();
+        assertThat(index.range(1, 1)).isEmpty();
+    }
+
+    private static void assertSameAs(List<Integer> model, RankedIndex<Integer> index, SplittableRandom random) {
+        assertThat(index.size()).isEqualTo(model.size());
+        for (int i = 0; i < 20; i++) {
+            int probe = random.nextInt(2_000);
+            int position = Collections.binarySearch(model, probe);
+            int upTo = position >= 0 ? position + 1 : -position - 1;
+
+            assertThat(index.rankOf(probe)).isEqualTo(position >= 0 ? position + 1 : 0);
+            assertThat(index.countUpTo(probe)).isEqualTo(upTo);
+
+            int from = 1 + random.nextInt(model.size() + 2);
+            int count = random.nextInt(30);
+            List<Integer> expected = from <= model.size()
+                    ? model.subList(from - 1, Math.min(model.size(), from - 1 + count))
+                    : List.of();
+            assertThat(index.range(from, count)).containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -12,6 +12,7 @@ export default interface SpriteInfo {
     hitboxY?: number;
     hitboxWidth?: number;
     hitboxHeight?: number;
+    type: "IDLE" | "WALK" | "ATTACK";
 }
 
 export interface Hitbox {
@@ -0,0 +1,26 @@
+export interface AtlasFrame {
+    page: number;
+    x: number;
+    y: number;
+}
+
+export interface AtlasAnimation {
+    sprite: string;
+    animationId: number;
+    type: "IDLE" | "WALK" | "ATTACK";
+    frameWidth: number;
+    frameHeight: number;
+    frameRate: number;
+    scale: number;
+    hitboxX?: number;
+    hitboxY?: number;
+    hitboxWidth?: number;
+    hitboxHeight?: number;
+    frames: AtlasFrame[];
+}
+
+export default interface AtlasDto {
+    id: string;
+    pages: string[];
+    animations: AtlasAnimation[];
+}
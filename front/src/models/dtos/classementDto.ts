@@ -1,4 +1,5 @@
 export default interface ClassementDto {
+    rank: number;
     pseudo: string;
     score: string;
 }
@@ -0,0 +1,11 @@
+export interface RankDelta {
+    pseudo: string;
+    oldRank: number;
+    newRank: number;
+    score: string;
+}
+
+export default interface LeaderboardDiffDto {
+    gameName: string;
+    deltas: RankDelta[];
+}
@@ -0,0 +1,7 @@
+import ClassementDto from "@/models/dtos/classementDto.ts";
+
+export default interface LeaderboardPageDto {
+    content: ClassementDto[];
+    afterScore: number | null;
+    afterId: number | null;
+}
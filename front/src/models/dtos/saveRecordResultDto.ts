@@ -0,0 +1,6 @@
+export default interface SaveRecordResultDto {
+    bestScore: number;
+    displayScore: string;
+    rank: number;
+    improved: boolean;
+}
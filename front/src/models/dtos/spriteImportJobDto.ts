@@ -0,0 +1,19 @@
+import SpriteInfo from "@/models/SpriteInfos.ts";
+
+export type ImportStage =
+    | "QUEUED"
+    | "UNZIPPED"
+    | "ANALYZED"
+    | "STORED"
+    | "PERSISTED"
+    | "FAILED";
+
+export default interface SpriteImportJobDto {
+    jobId: string;
+    stage: ImportStage;
+    processed: number;
+    total: number;
+    sprite?: SpriteInfo;
+    error?: string;
+    errorCode?: "SPRITE_ARCHIVE_TOO_LARGE" | "SPRITE_NAME_ALREADY_EXIST" | "SPRITE_IMPORT_FAILED";
+}
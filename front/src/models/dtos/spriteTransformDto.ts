@@ -0,0 +1,7 @@
+export type SpriteOperation = "NORMALIZE" | "FLIP";
+
+export default interface SpriteTransformDto {
+    spriteName?: string;
+    animationIds?: number[];
+    operations: SpriteOperation[];
+}
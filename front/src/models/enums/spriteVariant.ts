@@ -0,0 +1 @@
+export type SpriteVariant = "half" | "quarter" | "thumb";
@@ -2,6 +2,7 @@ import axios from "axios";
 import { localStore, LocalState } from "@/store/local.ts";
 import router from "@/router";
 import { useToast } from "@/services/toast.ts";
+import { resetStompClient } from "@/sockets/websocket-client.ts";
 
 const toast = useToast();
 
@@ -74,6 +75,7 @@ function handleInvalidToken(localstore: LocalState) {
     isTokenExpiredToastShown = true;
     localstore.pseudo = "";
     localstore.token = "";
+    void resetStompClient();
 
     router.push("/login").catch(() => {});
     showError("Session expirée, veuillez vous reconnecter.");
@@ -1,13 +1,54 @@
 import apiService from "@/services/apiService.ts";
 import SaveRecordDto from "@/models/dtos/saveRecordDto.ts";
+import SaveRecordResultDto from "@/models/dtos/saveRecordResultDto.ts";
+import LeaderboardPageDto from "@/models/dtos/leaderboardPageDto.ts";
 
 export default {
     async saveRecord(saveRecordDto: SaveRecordDto) {
-        return await apiService.post("/record", saveRecordDto);
+        return await apiService.post<SaveRecordResultDto>(
+            "/record",
+            saveRecordDto
+        );
     },
 
-    async getLeaderboard(gameName: string) {
-        return await apiService.get(`/record/leaderboard/${gameName}`);
+    async getLeaderboard(gameName: string, limit?: number) {
+        return await apiService.get(`/record/leaderboard/${gameName}`, {
+            params: { limit },
+        });
+    },
+
+    async getLeaderboardPage(
+        gameName: string,
+        after?: Pick<LeaderboardPageDto, "afterScore" | "afterId">,
+        size?: number
+    ) {
+        return await apiService.get<LeaderboardPageDto>(
+            `/record/leaderboard/${gameName}/page`,
+            {
+                params: {
+                    afterScore: after?.afterScore ?? undefined,
+                    afterId: after?.afterId ?? undefined,
+                    size,
+                },
+            }
+        );
+    },
+
+    async getMyRank(gameName: string) {
+        return await apiService.get(`/record/leaderboard/${gameName}/me`);
+    },
+
+    async getAroundMe(gameName: string, radius = 5) {
+        return await apiService.get(`/record/leaderboard/${gameName}/around`, {
+            params: { radius },
+        });
+    },
+
+    async getAroundPlayer(gameName: string, pseudo: string, radius = 5) {
+        return await apiService.get(
+            `/record/leaderboard/${gameName}/around/${encodeURIComponent(pseudo)}`,
+            { params: { radius } }
+        );
     },
 
     async getBestScore(gameName: string) {
@@ -2,12 +2,90 @@ import apiService from "@/services/apiService";
 import SpriteInfo, { Hitbox } from "@/models/SpriteInfos.ts";
 import ModifSpriteDto from "@/models/dtos/modifSpriteDto.ts";
 import { spriteCache } from "@/services/SpriteCache.ts";
+import SpriteImportJobDto from "@/models/dtos/spriteImportJobDto.ts";
+import SpriteTransformDto from "@/models/dtos/spriteTransformDto.ts";
+import SpritePlay from "@/models/SpritePlay.ts";
+import AtlasDto from "@/models/dtos/atlasDto.ts";
+import { SpriteVariant } from "@/models/enums/spriteVariant.ts";
+import { registerTopic } from "@/sockets/websocket-client.ts";
+import { StompSubscription } from "@stomp/stompjs";
+import { useToast } from "@/services/toast.ts";
+
+const toast = useToast();
+
+const IMPORT_POLL_MS = 3000;
+const IMPORT_TIMEOUT_MS = 5 * 60 * 1000;
+
+/**
+ * Attend la fin d'un import asynchrone, publiée sur /topic/sprite-import/{jobId}.
+ * Le statut est aussi interrogé en HTTP au cas où le WebSocket ne se connecte pas.
+ */
+function waitForImport(jobId: string): Promise<SpriteInfo | null> {
+    return new Promise((resolve, reject) => {
+        let finished = false;
+        const poll = setInterval(fetchStatus, IMPORT_POLL_MS);
+        const timeout = setTimeout(() => {
+            finish(() => {
+                toast.show("L'import ne répond plus", "error");
+                reject(new Error(`Import ${jobId} sans réponse`));
+            });
+        }, IMPORT_TIMEOUT_MS);
+
+        function finish(settle: () => void) {
+            if (finished) return;
+            finished = true;
+            clearInterval(poll);
+            clearTimeout(timeout);
+            subscription.unsubscribe();
+            settle();
+        }
+
+        function handle(job: SpriteImportJobDto) {
+            if (job.stage === "PERSISTED") {
+                // Pas de sprite renvoyé si l'archive n'a aucune animation IDLE
+                finish(() => resolve(job.sprite ?? null));
+            } else if (job.stage === "FAILED") {
+                finish(() => {
+                    toast.show(job.error || "Erreur import sprite", "error");
+                    reject(new Error(job.error));
+                });
+            }
+        }
+
+        async function fetchStatus() {
+            try {
+                const response = await apiService.get<SpriteImportJobDto>(
+                    `/sprite/import/${jobId}`
+                );
+                handle(response.data);
+            } catch {
+                // L'erreur est déjà affichée : on ne compte plus que sur le WebSocket et le délai maximal
+                clearInterval(poll);
+            }
+        }
+
+        const subscription: StompSubscription = registerTopic(
+            `/topic/sprite-import/${jobId}`,
+            handle,
+            () => {
+                // Le job a pu se terminer avant l'abonnement
+                if (!finished) fetchStatus();
+            }
+        );
+    });
+}
 
 export default {
     async uploadSprite(formData: FormData) {
-        return await apiService.post("/sprite", formData, {
-            headers: { "Content-Type": "multipart/form-data" },
-        });
+        const response = await apiService.post<SpriteImportJobDto>(
+            "/sprite",
+            formData,
+            {
+                headers: { "Content-Type": "multipart/form-data" },
+            }
+        );
+        const sprite = await waitForImport(response.data.jobId);
+        return { ...response, data: sprite };
     },
 
     async getAllSpritesInfos() {
@@ -23,11 +101,15 @@ export default {
         return await apiService.put(`/sprite/rename`, modifSpriteDto);
     },
 
-    async getImage(spritePath: string): Promise<string> {
-        return spriteCache.getOrFetch(spritePath, async () => {
+    async getImage(
+        spritePath: string,
+        variant?: SpriteVariant
+    ): Promise<string> {
+        const key = variant ? `${spritePath}?variant=${variant}` : spritePath;
+        return spriteCache.getOrFetch(key, async () => {
             const response = await apiService.get(
                 `/sprite/sprite-storage/${spritePath}`,
-                { responseType: "blob" }
+                { responseType: "blob", params: variant ? { variant } : {} }
             );
             return response.data;
         });
@@ -45,6 +127,16 @@ export default {
         return response.data;
     },
 
+    async getSpritePlays(spriteNames: string[]) {
+        const response = await apiService.post(`/sprite/play`, spriteNames);
+        return response.data as Record<string, SpritePlay>;
+    },
+
+    async getAtlas(spriteNames: string[]) {
+        const response = await apiService.post(`/sprite/atlas`, spriteNames);
+        return response.data as AtlasDto;
+    },
+
     async normalizeSpriteSheet(animationId: number, spriteUrl: string) {
         spriteCache.delete(spriteUrl);
         const response = await apiService.get(
@@ -61,6 +153,12 @@ export default {
         return response.data;
     },
 
+    async transformSprites(dto: SpriteTransformDto, spriteUrls: string[]) {
+        spriteUrls.forEach((url) => spriteCache.delete(url));
+        const response = await apiService.post(`/sprite/transform`, dto);
+        return response.data;
+    },
+
     async saveFrameRate(animationId: number, frameRate: number) {
         const response = await apiService.put(
             `/sprite/save-frame-rate/${animationId}/${frameRate}`
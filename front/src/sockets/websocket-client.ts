@@ -1,21 +1,86 @@
-import { Client, IMessage } from "@stomp/stompjs";
+import { Client, IMessage, StompSubscription, Versions } from "@stomp/stompjs";
 import { localStore } from "@/store/local.ts";
 import SockJS from "sockjs-client";
 
+const backHost = "202.15.200.35:" + import.meta.env.VITE_BACK_URL;
+
 let stompClient: Client | null = null;
+// Bascule définitive sur SockJS si le WebSocket natif n'a jamais pu s'ouvrir
+let useSockJs = typeof WebSocket === "undefined";
+let nativeOpened = false;
 
-function createClient(): Client {
-    const socket = new SockJS(
-        "http://202.15.200.35:" + import.meta.env.VITE_BACK_URL + "/ws"
+function openSocket() {
+    if (useSockJs) {
+        return new SockJS("http://" + backHost + "/ws");
+    }
+    const socket = new WebSocket(
+        "ws://" + backHost + "/ws-game",
+        Versions.default.protocolVersions()
     );
+    socket.addEventListener("open", () => {
+        nativeOpened = true;
+    });
+    return socket;
+}
+
+interface TopicSubscription {
+    destination: string;
+    onMessageReceived: (msg: any) => void;
+    current: StompSubscription | null;
+    ready?: () => void;
+}
 
-    return new Client({
-        webSocketFactory: () => socket,
+// Abonnements à rétablir à chaque (re)connexion : STOMP les perd avec la session
+const topics = new Set<TopicSubscription>();
+
+function subscribeNow(client: Client, topic: TopicSubscription) {
+    topic.current = client.subscribe(
+        topic.destination,
+        (msg: IMessage) => topic.onMessageReceived(JSON.parse(msg.body)),
+        {
+            Authorization: `Bearer ${localStore.token}`,
+        }
+    );
+    topic.ready?.();
+    topic.ready = undefined;
+}
+
+function createClient(): Client {
+    const client = new Client({
+        webSocketFactory: openSocket,
         reconnectDelay: 5000,
-        connectHeaders: localStore.token
+    });
+    // Relu à chaque (re)connexion : le jeton a pu changer depuis la création du client
+    client.beforeConnect = () => {
+        client.connectHeaders = localStore.token
             ? { Authorization: `Bearer ${localStore.token}` }
-            : {},
+            : {};
+    };
+    client.onConnect = () => {
+        topics.forEach((topic) => subscribeNow(client, topic));
+    };
+    client.onWebSocketClose = () => {
+        if (!useSockJs && !nativeOpened) {
+            useSockJs = true;
+        }
+    };
+    return client;
+}
+
+/**
+ * À appeler quand le jeton change (connexion, déconnexion) : la session STOMP ouverte garde l'identité de son CONNECT.
+ * Les abonnements enregistrés sont rétablis sur le nouveau client s'il y a un jeton, sinon au prochain abonnement.
+ */
+export async function resetStompClient() {
+    const previous = stompClient;
+    stompClient = null;
+    topics.forEach((topic) => {
+        topic.current = null;
     });
+    await previous?.deactivate();
+    if (topics.size > 0 && localStore.token && !stompClient) {
+        getStompClient().activate();
+    }
 }
 
 export function getStompClient(): Client {
@@ -25,30 +90,50 @@ export function getStompClient(): Client {
     return stompClient;
 }
 
-export function connexionChat(onMessageReceived: (msg: any) => void): Client {
+/**
+ * Enregistre l'abonnement, actif tout de suite si le client est connecté et rétabli après chaque reconnexion.
+ * `ready` est appelé au premier abonnement effectif.
+ */
+export function registerTopic(
+    destination: string,
+    onMessageReceived: (msg: any) => void,
+    ready?: (subscription: StompSubscription) => void
+): StompSubscription {
     const client = getStompClient();
-
-    const subscribeToTopic = () => {
-        client.subscribe(
-            "/topic/chat",
-            (msg: IMessage) => {
-                const newMsg = JSON.parse(msg.body);
-                onMessageReceived(newMsg);
-            },
-            {
-                Authorization: `Bearer ${localStore.token}`,
+    const topic: TopicSubscription = {
+        destination,
+        onMessageReceived,
+        current: null,
+    };
+    const subscription: StompSubscription = {
+        get id() {
+            return topic.current?.id ?? "";
+        },
+        unsubscribe: () => {
+            topics.delete(topic);
+            // Le client a pu être remplacé depuis l'enregistrement
+            if (stompClient?.connected) {
+                topic.current?.unsubscribe();
             }
-        );
+            topic.current = null;
+        },
     };
+    if (ready) {
+        topic.ready = () => ready(subscription);
+    }
+    topics.add(topic);
 
     if (client.connected) {
-        subscribeToTopic();
-    } else {
-        client.onConnect = () => {
-            subscribeToTopic();
-        };
+        subscribeNow(client, topic);
+    } else if (!client.active) {
         client.activate();
     }
 
-    return client;
+    return subscription;
+}
+
+export function connexionChat(
+    onMessageReceived: (msg: any) => void
+): StompSubscription {
+    return registerTopic("/topic/chat", onMessageReceived);
 }